@@ -1,6 +1,7 @@
 plugins {
 	id("net.civmc.civgradle")
 	id("io.papermc.paperweight.userdev")
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 dependencies {
@@ -9,4 +10,16 @@ dependencies {
 	compileOnly("net.civmc.civmodcore:civmodcore-paper:2.3.5:dev-all")
 	compileOnly("net.civmc.namelayer:namelayer-paper:3.0.4:dev")
 	compileOnly("com.gmail.filoghost.holographicdisplays:holographicdisplays-api:2.4.9")
+
+	testImplementation(platform("org.junit:junit-bom:5.10.0"))
+	testImplementation("org.junit.jupiter:junit-jupiter")
+	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+	useJUnitPlatform()
 }
+
+// tests and benchmarks run outside of a server, so they need the server api on their own classpath
+configurations["testImplementation"].extendsFrom(configurations.compileOnly.get())
+configurations["jmhImplementation"].extendsFrom(configurations.compileOnly.get())
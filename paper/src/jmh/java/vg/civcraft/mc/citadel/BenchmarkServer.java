@@ -0,0 +1,61 @@
+package vg.civcraft.mc.citadel;
+
+import java.lang.reflect.Proxy;
+import java.util.logging.Logger;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+
+/**
+ * Minimal stand ins for the server and a world, so code which only asks whether it runs on the main thread can be
+ * benchmarked without starting a server. Every benchmark thread counts as the main thread
+ */
+final class BenchmarkServer {
+
+	private static final Logger LOGGER = Logger.getLogger("CitadelBenchmark");
+
+	private BenchmarkServer() {
+	}
+
+	static synchronized void install() {
+		if (Bukkit.getServer() != null) {
+			return;
+		}
+		Bukkit.setServer(stub(Server.class));
+	}
+
+	static World createWorld() {
+		return stub(World.class);
+	}
+
+	private static <T> T stub(Class<T> type) {
+		Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "isPrimaryThread":
+					return true;
+				case "getLogger":
+					return LOGGER;
+				case "getName":
+				case "getVersion":
+				case "getBukkitVersion":
+					return "benchmark";
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return type.getSimpleName() + " stub";
+				default:
+					Class<?> returnType = method.getReturnType();
+					if (returnType == boolean.class) {
+						return false;
+					}
+					if (returnType.isPrimitive() && returnType != void.class) {
+						throw new UnsupportedOperationException(method.getName() + " is not stubbed");
+					}
+					return null;
+			}
+		});
+		return type.cast(stub);
+	}
+}
@@ -0,0 +1,106 @@
+package vg.civcraft.mc.citadel;
+
+import java.util.concurrent.TimeUnit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import vg.civcraft.mc.citadel.model.CitadelDAO;
+import vg.civcraft.mc.citadel.model.ReinforcementOccupancy;
+
+/**
+ * Measures the part of {@link ReinforcementManager#getReinforcement(World, int, int, int)} which runs before the
+ * chunk meta data is consulted: the occupancy bitmap and resolving the location to look up. The chunk meta lookup
+ * itself needs a running server and is not covered. Run with -prof gc to see the allocation rate per lookup
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReinforcementLookupBenchmark {
+
+	private static final short WORLD_ID = 0;
+
+	// a reinforced block with an unreinforced block in the same section next to it
+	private static final int BLOCK_X = 1;
+	private static final int BLOCK_Y = 70;
+	private static final int BLOCK_Z = 1;
+	private static final int EMPTY_X = 12;
+	// a double chest, of which only the first half is reinforced
+	private static final int CHEST_X = 3;
+	private static final int CHEST_Y = 64;
+	private static final int CHEST_Z = 5;
+	// a crop, which is protected by the reinforcement of the soil below it
+	private static final int CROP_X = 8;
+	private static final int CROP_Y = 64;
+	private static final int CROP_Z = 8;
+
+	@Param({"true", "false"})
+	public boolean occupancyBitmap;
+
+	private World world;
+	private ReinforcementManager manager;
+
+	@Setup
+	public void setUp() {
+		BenchmarkServer.install();
+		world = BenchmarkServer.createWorld();
+		ReinforcementOccupancy occupancy = null;
+		if (occupancyBitmap) {
+			occupancy = new ReinforcementOccupancy();
+			occupancy.setWorldHeight(WORLD_ID, -64, 320);
+			occupancy.chunkLoaded(CitadelDAO.toChunkKey(WORLD_ID, 0, 0),
+					new int[] {toPosition(BLOCK_X, BLOCK_Y, BLOCK_Z), toPosition(CHEST_X, CHEST_Y, CHEST_Z),
+							toPosition(CROP_X, CROP_Y - 1, CROP_Z)});
+			occupancy.applyPendingUpdates();
+		}
+		// the chunk meta data is never reached by these benchmarks
+		manager = new ReinforcementManager(null, occupancy);
+	}
+
+	private static int toPosition(int x, int y, int z) {
+		return (y << 8) | (x << 4) | z;
+	}
+
+	@Benchmark
+	public Location reinforced() {
+		return manager.getLookupLocation(world, WORLD_ID, BLOCK_X, BLOCK_Y, BLOCK_Z);
+	}
+
+	@Benchmark
+	public Location unreinforced() {
+		return manager.getLookupLocation(world, WORLD_ID, EMPTY_X, BLOCK_Y, BLOCK_Z);
+	}
+
+	@Benchmark
+	public void doubleChest(Blackhole blackhole) {
+		blackhole.consume(manager.getLookupLocation(world, WORLD_ID, CHEST_X, CHEST_Y, CHEST_Z));
+		blackhole.consume(manager.getLookupLocation(world, WORLD_ID, CHEST_X + 1, CHEST_Y, CHEST_Z));
+	}
+
+	@Benchmark
+	public void crop(Blackhole blackhole) {
+		blackhole.consume(manager.getLookupLocation(world, WORLD_ID, CROP_X, CROP_Y, CROP_Z));
+		blackhole.consume(manager.getLookupLocation(world, WORLD_ID, CROP_X, CROP_Y - 1, CROP_Z));
+	}
+
+	/**
+	 * What every lookup which was not answered by the bitmap cost before the lookup location was reused
+	 */
+	@Benchmark
+	public Location allocatingBaseline() {
+		return new Location(world, BLOCK_X, BLOCK_Y, BLOCK_Z);
+	}
+}
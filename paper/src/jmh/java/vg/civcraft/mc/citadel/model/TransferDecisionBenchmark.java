@@ -0,0 +1,94 @@
+package vg.civcraft.mc.citadel.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vg.civcraft.mc.citadel.ResponsibleBlockResolver;
+
+/**
+ * Simulates one server tick of 1000 hoppers each moving an item into the chest below them, spread over 100 chunks.
+ * Every transfer asks the cache first and stores a decision on a miss, like the inventory listener does. Block
+ * changes bump the epoch of random chunks before the transfers, to show how quickly changes keep the cache cold
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferDecisionBenchmark {
+
+	private static final short WORLD_ID = 0;
+	private static final int HOPPERS = 1000;
+	private static final int CHUNKS_PER_SIDE = 10;
+
+	/**
+	 * Amount of chunks whose epoch is bumped every tick, for example by a reinforcement or chest being placed
+	 */
+	@Param({"0", "1", "10", "100"})
+	public int changedChunksPerTick;
+
+	private TransferDecisionCache cache;
+	private long[] from;
+	private long[] to;
+	private int[] fromX;
+	private int[] fromZ;
+	private int nextChange;
+
+	@Setup
+	public void setUp() {
+		cache = new TransferDecisionCache(HOPPERS * 2);
+		for (int chunkX = 0; chunkX < CHUNKS_PER_SIDE; chunkX++) {
+			for (int chunkZ = 0; chunkZ < CHUNKS_PER_SIDE; chunkZ++) {
+				cache.chunkLoaded(WORLD_ID, chunkX, chunkZ);
+			}
+		}
+		from = new long[HOPPERS];
+		to = new long[HOPPERS];
+		fromX = new int[HOPPERS];
+		fromZ = new int[HOPPERS];
+		int hoppersPerChunk = HOPPERS / (CHUNKS_PER_SIDE * CHUNKS_PER_SIDE);
+		for (int i = 0; i < HOPPERS; i++) {
+			int chunk = i / hoppersPerChunk;
+			// stay away from chunk borders, transfers across them are never cached
+			int x = (chunk % CHUNKS_PER_SIDE) * 16 + 1 + (i % hoppersPerChunk);
+			int z = (chunk / CHUNKS_PER_SIDE) * 16 + 8;
+			from[i] = ResponsibleBlockResolver.pack(x, 65, z);
+			to[i] = ResponsibleBlockResolver.pack(x, 64, z);
+			fromX[i] = x;
+			fromZ[i] = z;
+		}
+		tick();
+	}
+
+	@Benchmark
+	public int tick() {
+		for (int i = 0; i < changedChunksPerTick; i++) {
+			int hopper = nextChange;
+			nextChange = (nextChange + 7919) % HOPPERS;
+			cache.blockChanged(WORLD_ID, fromX[hopper], fromZ[hopper]);
+		}
+		int allowed = 0;
+		for (int i = 0; i < HOPPERS; i++) {
+			Boolean decision = cache.get(WORLD_ID, from[i], to[i]);
+			if (decision == null) {
+				// stands in for looking up both reinforcements, which needs a running server
+				decision = (i & 1) == 0;
+				cache.put(WORLD_ID, from[i], to[i], decision);
+			}
+			if (decision) {
+				allowed++;
+			}
+		}
+		return allowed;
+	}
+}
@@ -1,23 +1,38 @@
 package vg.civcraft.mc.citadel;
 
+import java.io.File;
 import java.util.logging.Logger;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
 import org.bukkit.event.HandlerList;
 import vg.civcraft.mc.citadel.listener.ActivityListener;
 import vg.civcraft.mc.citadel.activity.ActivityMap;
 import vg.civcraft.mc.citadel.command.CitadelCommandManager;
 import vg.civcraft.mc.citadel.listener.BlockListener;
+import vg.civcraft.mc.citadel.listener.ColumnCacheListener;
 import vg.civcraft.mc.citadel.listener.EntityListener;
+import vg.civcraft.mc.citadel.listener.GroupChangeListener;
+import vg.civcraft.mc.citadel.listener.InteractListener;
 import vg.civcraft.mc.citadel.listener.InventoryListener;
 import vg.civcraft.mc.citadel.listener.ModeListener;
+import vg.civcraft.mc.citadel.listener.OccupancyListener;
+import vg.civcraft.mc.citadel.listener.PermissionSnapshotListener;
+import vg.civcraft.mc.citadel.listener.PlaceListener;
 import vg.civcraft.mc.citadel.listener.RedstoneListener;
+import vg.civcraft.mc.citadel.listener.TransferCacheListener;
 import vg.civcraft.mc.citadel.listener.WorldBorderListener;
 import vg.civcraft.mc.citadel.model.AcidManager;
 import vg.civcraft.mc.citadel.model.CitadelChunkData;
 import vg.civcraft.mc.citadel.model.CitadelDAO;
 import vg.civcraft.mc.citadel.model.CitadelSettingManager;
+import vg.civcraft.mc.citadel.model.ColumnAnchorCache;
 import vg.civcraft.mc.citadel.model.HologramManager;
+import vg.civcraft.mc.citadel.model.PermissionDecisionCache;
+import vg.civcraft.mc.citadel.model.PlayerPermissionSnapshots;
 import vg.civcraft.mc.citadel.model.Reinforcement;
+import vg.civcraft.mc.citadel.model.ReinforcementOccupancy;
+import vg.civcraft.mc.citadel.model.TransferDecisionCache;
 import vg.civcraft.mc.citadel.playerstate.PlayerStateManager;
 import vg.civcraft.mc.citadel.reinforcementtypes.ReinforcementTypeManager;
 import vg.civcraft.mc.civmodcore.ACivMod;
@@ -45,6 +60,9 @@ public class Citadel extends ACivMod {
 	private CitadelDAO dao;
 	private ActivityMap activityMap;
 	private CitadelCommandManager commandManager;
+	private PermissionDecisionCache permissionCache;
+	private PlayerPermissionSnapshots permissionSnapshots;
+	private TransferDecisionCache transferCache;
 
 	private PlayerStateManager stateManager;
 
@@ -83,16 +101,43 @@ public class Citadel extends ACivMod {
 		return activityMap;
 	}
 	
-	CitadelDAO getDAO() {
+	public CitadelDAO getDAO() {
 		return dao;
 	}
 
+	/**
+	 * @return Cache for permission checks on reinforcement groups or null if it is disabled
+	 */
+	public PermissionDecisionCache getPermissionCache() {
+		return permissionCache;
+	}
+
+	/**
+	 * @return Per player snapshots of permissions on their groups or null if they are disabled
+	 */
+	public PlayerPermissionSnapshots getPermissionSnapshots() {
+		return permissionSnapshots;
+	}
+
+	/**
+	 * @return Cache for hopper transfer decisions or null if it is disabled
+	 */
+	public TransferDecisionCache getTransferCache() {
+		return transferCache;
+	}
+
 	@Override
 	public void onDisable() {
-		activityMap.disable();
-		dao.setBatchMode(true);
-		reinManager.shutDown();
-		dao.cleanupBatches();
+		try {
+			activityMap.disable();
+		} finally {
+			// reinforcement changes must be flushed even if saving activities failed
+			dao.setBatchMode(true);
+			reinManager.shutDown();
+			dao.cleanupBatches();
+			// palette entries hold on to the reinforcement types, which are replaced when enabling again
+			Reinforcement.clearPalette();
+		}
 		HandlerList.unregisterAll(this);
 		Bukkit.getScheduler().cancelTasks(this);
 	}
@@ -127,16 +172,54 @@ public class Citadel extends ACivMod {
 				return;
 			}
 		});
+		ResponsibleBlockResolver.configure(config.getResponsibleBlockRules());
+		if (config.getPermissionCacheSize() > 0) {
+			permissionCache = new PermissionDecisionCache(config.getPermissionCacheSize(),
+					config.getPermissionCacheTtlMs());
+		}
+		if (config.getTransferCacheSize() > 0) {
+			transferCache = new TransferDecisionCache(config.getTransferCacheSize());
+		}
+		ColumnAnchorCache columnCache = config.useColumnAnchorCache() ? new ColumnAnchorCache() : null;
+		ResponsibleBlockResolver.setColumnCache(columnCache);
 		dao = new CitadelDAO(this.logger, config.getDatabase());
 		if (!dao.updateDatabase()) {
 			logger.severe("Errors setting up database, shutting down");
 			Bukkit.shutdown();
 			return;
 		}
+		dao.setUpsertWidth(config.getUpsertWidth());
+		File journalFolder = new File(getDataFolder(), "journal");
+		if (!dao.replayJournal(journalFolder)) {
+			logger.severe("Errors replaying the reinforcement journal, shutting down");
+			Bukkit.shutdown();
+			return;
+		}
+		if (config.useWriteBehind()) {
+			dao.enableWriteBehind(config.getWriteBehindFlushIntervalMs(), config.getWriteBehindBatchSize(),
+					config.useWriteBehindJournal() ? journalFolder : null);
+		} else if (config.useWriteBehindJournal()) {
+			logger.warning("storage-journal requires write behind, set storage-write-behind to enable it");
+		}
+		if (config.usePopulatedChunkIndex()) {
+			dao.enablePopulatedChunkIndex();
+		}
+		if (config.getChunkCacheBytes() > 0) {
+			dao.enableChunkCache(config.getChunkCacheBytes());
+			if (config.getPrefetchRadius() > 0) {
+				dao.enableAreaPrefetch(config.getPrefetchRadius());
+			}
+		} else if (config.getPrefetchRadius() > 0) {
+			logger.warning("storage-prefetch-radius requires the chunk cache, set storage-chunk-cache-mb to enable it");
+		}
 
 		activityMap = new ActivityMap(this.logger, config.getDatabase());
 		activityMap.enable();
 
+		// has to be in place before any chunk is loaded, which happens as soon as we register with the chunk meta API
+		ReinforcementOccupancy occupancy = config.useOccupancyBitmap() ? new ReinforcementOccupancy() : null;
+		dao.setOccupancy(occupancy);
+
 		BlockBasedChunkMetaView<CitadelChunkData, TableBasedDataObject, TableStorageEngine<Reinforcement>> chunkMetaData =
 				ChunkMetaAPI.registerBlockBasedPlugin(this, () -> new CitadelChunkData(false, dao),dao, true);
 		if (chunkMetaData == null) {
@@ -144,7 +227,7 @@ public class Citadel extends ACivMod {
 			Bukkit.shutdown();
 			return;
 		}
-		reinManager = new ReinforcementManager(chunkMetaData);
+		reinManager = new ReinforcementManager(chunkMetaData, occupancy);
 		stateManager = new PlayerStateManager();
 		acidManager = new AcidManager(config.getAcidTypes());
 		settingManager = new CitadelSettingManager();
@@ -158,7 +241,35 @@ public class Citadel extends ACivMod {
 			}});
 		commandManager = new CitadelCommandManager(this);
 		CitadelPermissionHandler.setup();
+		if (config.usePermissionSnapshots()) {
+			permissionSnapshots = new PlayerPermissionSnapshots(this, logger, CitadelPermissionHandler.getAll(),
+					config.getPermissionSnapshotMaxAgeMs());
+		}
 		registerListeners();
+		if (occupancy != null) {
+			getServer().getPluginManager().registerEvents(new OccupancyListener(occupancy), this);
+			getServer().getScheduler().runTaskTimer(this, occupancy::applyPendingUpdates, 1L, 1L);
+		}
+		if (columnCache != null) {
+			getServer().getPluginManager().registerEvents(new ColumnCacheListener(columnCache), this);
+		}
+		if (transferCache != null) {
+			getServer().getPluginManager().registerEvents(new TransferCacheListener(transferCache), this);
+			// chunks loaded before the listener was registered
+			for (World world : getServer().getWorlds()) {
+				short worldID = reinManager.getWorldID(world);
+				for (Chunk chunk : world.getLoadedChunks()) {
+					transferCache.chunkLoaded(worldID, chunk.getX(), chunk.getZ());
+				}
+			}
+		}
+		getServer().getPluginManager().registerEvents(
+				new GroupChangeListener(permissionCache, permissionSnapshots, activityMap), this);
+		if (permissionSnapshots != null) {
+			getServer().getPluginManager().registerEvents(new PermissionSnapshotListener(permissionSnapshots), this);
+			// players already online after a reload
+			getServer().getOnlinePlayers().forEach(p -> permissionSnapshots.rebuild(p.getUniqueId()));
+		}
 	}
 
 	/**
@@ -167,7 +278,9 @@ public class Citadel extends ACivMod {
 	private void registerListeners() {
 		getServer().getPluginManager().registerEvents(new BlockListener(this), this);
 		getServer().getPluginManager().registerEvents(new EntityListener(), this);
-		getServer().getPluginManager().registerEvents(new InventoryListener(), this);
+		getServer().getPluginManager().registerEvents(new InventoryListener(transferCache), this);
+		getServer().getPluginManager().registerEvents(new InteractListener(), this);
+		getServer().getPluginManager().registerEvents(new PlaceListener(), this);
 		getServer().getPluginManager().registerEvents(new ModeListener(this), this);
 		getServer().getPluginManager().registerEvents(new RedstoneListener(config.getMaxRedstoneDistance()), this);
 		getServer().getPluginManager().registerEvents(new ActivityListener(activityMap), this);
@@ -2,6 +2,7 @@ package vg.civcraft.mc.citadel;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -59,6 +60,24 @@ public class CitadelConfigManager extends ConfigParser {
 
 	private Map<UUID, WorldBorderBuffers> buffers;
 
+	private boolean writeBehind;
+	private long writeBehindFlushIntervalMs;
+	private int writeBehindBatchSize;
+	private boolean writeBehindJournal;
+	private int upsertWidth;
+	private boolean populatedChunkIndex;
+	private long chunkCacheBytes;
+	private int prefetchRadius;
+	private boolean occupancyBitmap;
+	private boolean columnAnchorCache;
+	private int permissionCacheSize;
+	private long permissionCacheTtlMs;
+	private boolean permissionSnapshots;
+	private int transferCacheSize;
+	private long permissionSnapshotMaxAgeMs;
+
+	private Map<Material, ResponsibleBlockResolver.Rule> responsibleBlockRules;
+
 	public CitadelConfigManager(ACivMod plugin) {
 		super(plugin);
 	}
@@ -87,6 +106,70 @@ public class CitadelConfigManager extends ConfigParser {
 		return activityWorlds;
 	}
 
+	public boolean useWriteBehind() {
+		return writeBehind;
+	}
+
+	public long getWriteBehindFlushIntervalMs() {
+		return writeBehindFlushIntervalMs;
+	}
+
+	public int getWriteBehindBatchSize() {
+		return writeBehindBatchSize;
+	}
+
+	public boolean useWriteBehindJournal() {
+		return writeBehindJournal;
+	}
+
+	public int getUpsertWidth() {
+		return upsertWidth;
+	}
+
+	public boolean usePopulatedChunkIndex() {
+		return populatedChunkIndex;
+	}
+
+	public long getChunkCacheBytes() {
+		return chunkCacheBytes;
+	}
+
+	public int getPrefetchRadius() {
+		return prefetchRadius;
+	}
+
+	public boolean useOccupancyBitmap() {
+		return occupancyBitmap;
+	}
+
+	public boolean useColumnAnchorCache() {
+		return columnAnchorCache;
+	}
+
+	public int getPermissionCacheSize() {
+		return permissionCacheSize;
+	}
+
+	public long getPermissionCacheTtlMs() {
+		return permissionCacheTtlMs;
+	}
+
+	public boolean usePermissionSnapshots() {
+		return permissionSnapshots;
+	}
+
+	public long getPermissionSnapshotMaxAgeMs() {
+		return permissionSnapshotMaxAgeMs;
+	}
+
+	public int getTransferCacheSize() {
+		return transferCacheSize;
+	}
+
+	public Map<Material, ResponsibleBlockResolver.Rule> getResponsibleBlockRules() {
+		return responsibleBlockRules;
+	}
+
 	public List<Material> getBlacklistedMaterials() {
 		return globalBlackList;
 	}
@@ -174,6 +257,13 @@ public class CitadelConfigManager extends ConfigParser {
 
 		activityMapRadius = config.getInt("activity-map-radius", 1);
 		activityMapResolution = config.getInt("activity-map-resolution", 512);
+		if (activityMapResolution < 16 || activityMapResolution % 16 != 0) {
+			// regions are made of whole chunks, smaller ones would make keys of different chunks collide
+			int adjusted = Math.max(16, 16 * (activityMapResolution / 16));
+			logger.warning("activity-map-resolution must be a multiple of 16 and at least 16, using " + adjusted
+					+ " instead of " + activityMapResolution);
+			activityMapResolution = adjusted;
+		}
 		activityEntryRefreshAfterMs = config.getLong("activity-entry-refresh-after-ms", 3 * 60L * 60L * 1000L);
 		activityRadiusRefreshAfterMs = config.getLong("activity-radius-refresh-after-ms", 3 * 60L * 60L * 1000L);
 		activityDefault = config.getLong("activity-default", System.currentTimeMillis());
@@ -181,6 +271,23 @@ public class CitadelConfigManager extends ConfigParser {
 
 		parseWorldBorderBuffers(config.getConfigurationSection("world-border-buffers"));
 
+		writeBehind = config.getBoolean("storage-write-behind", false);
+		writeBehindFlushIntervalMs = config.getLong("storage-flush-interval-ms", 5000L);
+		writeBehindBatchSize = config.getInt("storage-flush-batch-size", 1000);
+		writeBehindJournal = config.getBoolean("storage-journal", false);
+		upsertWidth = config.getInt("storage-upsert-width", 0);
+		populatedChunkIndex = config.getBoolean("storage-populated-chunk-index", false);
+		chunkCacheBytes = config.getLong("storage-chunk-cache-mb", 0L) * 1024L * 1024L;
+		prefetchRadius = config.getInt("storage-prefetch-radius", 0);
+		occupancyBitmap = config.getBoolean("occupancy-bitmap", true);
+		columnAnchorCache = config.getBoolean("column-anchor-cache", false);
+		permissionCacheSize = config.getInt("permission-cache-size", 0);
+		permissionCacheTtlMs = config.getLong("permission-cache-ttl-ms", 30000L);
+		permissionSnapshots = config.getBoolean("permission-snapshots", false);
+		permissionSnapshotMaxAgeMs = config.getLong("permission-snapshot-max-age-ms", 5 * 60L * 1000L);
+		transferCacheSize = config.getInt("hopper-cache-size", 0);
+		parseResponsibleBlockRules(config.getConfigurationSection("responsible-blocks"));
+
 		return true;
 	}
 
@@ -326,4 +433,50 @@ public class CitadelConfigManager extends ConfigParser {
 		}
 
 	}
+
+	private void parseResponsibleBlockRules(ConfigurationSection config) {
+		responsibleBlockRules = new EnumMap<>(Material.class);
+		if (config == null) {
+			return;
+		}
+		for (String key : config.getKeys(false)) {
+			Material material = Material.getMaterial(key);
+			if (material == null) {
+				logger.warning("Responsible block rule at " + config.getCurrentPath() + " had invalid material "
+						+ key + ", it was ignored");
+				continue;
+			}
+			ConfigurationSection current = config.getConfigurationSection(key);
+			if (current == null) {
+				logger.warning("Ignoring invalid entry " + key + " at " + config.getCurrentPath());
+				continue;
+			}
+			ResponsibleBlockResolver.Strategy strategy = null;
+			if (current.isString("strategy")) {
+				try {
+					strategy = ResponsibleBlockResolver.Strategy.valueOf(
+							current.getString("strategy").toUpperCase().replace('-', '_'));
+				} catch (IllegalArgumentException exception) {
+					logger.warning("Strategy at " + current.getCurrentPath() + " was not a valid input");
+					continue;
+				}
+				if (!ResponsibleBlockResolver.supports(strategy, material)) {
+					logger.warning("Strategy at " + current.getCurrentPath() + " can not be used for " + material
+							+ ", it was ignored");
+					continue;
+				}
+			}
+			Material companion = null;
+			if (current.isString("companion")) {
+				companion = Material.getMaterial(current.getString("companion"));
+				if (companion == null) {
+					logger.warning("Companion at " + current.getCurrentPath() + " was not a valid material");
+					continue;
+				}
+			}
+			Boolean plant = current.isBoolean("plant") ? current.getBoolean("plant") : null;
+			responsibleBlockRules.put(material, new ResponsibleBlockResolver.Rule(strategy, companion, plant));
+		}
+		logger.info("Parsed " + responsibleBlockRules.size() + " responsible block rules");
+	}
 }
@@ -60,6 +60,15 @@ public class CitadelPermissionHandler {
 				"Allows the rotation of items placed within Item Frames.");
 	}
 	
+	/**
+	 * @return All permissions registered by Citadel
+	 */
+	public static PermissionType[] getAll() {
+		return new PermissionType[] {chestPerm, bypassPerm, cropsPerm, insecurePerm, reinforcePerm, doorPerm,
+				acidPerm, infoPerm, repairPerm, modifyBlockPerm, beaconPerm, hangingPlaceBreak, itemFramePutTake,
+				itemFrameRotate};
+	}
+
 	public static PermissionType getModifyBlocks() {
 		return modifyBlockPerm;
 	}
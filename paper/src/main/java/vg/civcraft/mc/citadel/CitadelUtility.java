@@ -27,60 +27,7 @@ public class CitadelUtility {
 	}
 
 	public static boolean isPlant(Block plant) {
-		switch (plant.getType()) {
-			case DANDELION:
-			case POPPY:
-			case BLUE_ORCHID:
-			case ALLIUM:
-			case AZURE_BLUET:
-			case ORANGE_TULIP:
-			case RED_TULIP:
-			case PINK_TULIP:
-			case WHITE_TULIP:
-			case OXEYE_DAISY:
-			case ACACIA_SAPLING:
-			case BIRCH_SAPLING:
-			case DARK_OAK_SAPLING:
-			case JUNGLE_SAPLING:
-			case OAK_SAPLING:
-			case SPRUCE_SAPLING:
-			case FLOWERING_AZALEA:
-			case WHEAT:
-			case CARROTS:
-			case POTATOES:
-			case BEETROOTS:
-			case MELON_STEM:
-			case PUMPKIN_STEM:
-			case ATTACHED_MELON_STEM:
-			case ATTACHED_PUMPKIN_STEM:
-			case NETHER_WART:
-			case SUGAR_CANE:
-			case CACTUS:
-			case SUNFLOWER:
-			case LILAC:
-			case PEONY:
-			case TALL_GRASS:
-			case GRASS:
-			case TWISTING_VINES:
-			case TWISTING_VINES_PLANT:
-			case WEEPING_VINES:
-			case WEEPING_VINES_PLANT:
-			case KELP:
-			case KELP_PLANT:
-			case BIG_DRIPLEAF:
-			case BIG_DRIPLEAF_STEM:
-			case CAVE_VINES:
-			case CAVE_VINES_PLANT:
-			case SMALL_DRIPLEAF:
-			case SWEET_BERRY_BUSH:
-			case BAMBOO:
-			case BAMBOO_SAPLING:
-			case SEA_PICKLE:
-			case POINTED_DRIPSTONE:
-				return true;
-			default:
-				return false;
-		}
+		return ResponsibleBlockResolver.isPlant(plant.getType());
 	}
 
 	public static void sendAndLog(CommandSender receiver, ChatColor color, String message) {
@@ -1,17 +1,11 @@
 package vg.civcraft.mc.citadel;
 
 import java.time.Instant;
-import java.util.Objects;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
-import org.bukkit.block.BlockFace;
-import org.bukkit.block.data.type.AmethystCluster;
-import org.bukkit.block.data.type.Bed;
-import org.bukkit.block.data.type.Chest;
-import org.bukkit.block.data.type.CoralWallFan;
-import org.bukkit.block.data.type.PointedDripstone;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.InventoryHolder;
@@ -107,44 +101,29 @@ public final class ReinforcementLogic {
 		if (!WorldUtils.isValidBlock(block)) {
 			return null;
 		}
-		Reinforcement reinforcement = getReinforcementAt(block.getLocation());
+		ReinforcementManager reinMan = Citadel.getInstance().getReinforcementManager();
+		World world = block.getWorld();
+		int x = block.getX();
+		int y = block.getY();
+		int z = block.getZ();
+		Reinforcement reinforcement = reinMan.getReinforcement(world, x, y, z);
 		if (reinforcement != null) {
 			return reinforcement;
 		}
-		switch (block.getType()) {
-			// Chests are awkward since you can place both sides of a double chest
-			// independently, which isn't true for
-			// beds, plants, or doors, so this needs to be accounted for and
-			// "getResponsibleBlock()" isn't appropriate
-			// for the following logic: that both sides protect each other; that if either
-			// block is reinforced, then
-			// the chest as a whole remains protected.
-			case CHEST:
-			case TRAPPED_CHEST: {
-				Chest chest = (Chest) block.getBlockData();
-				BlockFace facing = chest.getFacing();
-				switch (chest.getType()) {
-					case LEFT: {
-						BlockFace face = WorldUtils.turnClockwise(facing);
-						return getReinforcementAt(block.getLocation().add(face.getDirection()));
-					}
-					case RIGHT: {
-						BlockFace face = WorldUtils.turnAntiClockwise(facing);
-						return getReinforcementAt(block.getLocation().add(face.getDirection()));
-					}
-					default: {
-						return null;
-					}
-				}
-			}
-			default: {
-				Block responsible = getResponsibleBlock(block);
-				if (Objects.equals(block, responsible)) {
-					return null;
-				}
-				return getReinforcementAt(responsible.getLocation());
-			}
+		Material type = block.getType();
+		if (ResponsibleBlockResolver.getStrategy(type) == ResponsibleBlockResolver.Strategy.SELF) {
+			return null;
+		}
+		// Chests are awkward since you can place both sides of a double chest
+		// independently, which isn't true for beds, plants, or doors, so both sides
+		// protect each other and if either block is reinforced, the chest as a whole
+		// remains protected. The resolver accounts for this
+		long responsible = ResponsibleBlockResolver.resolveProtecting(block, type);
+		if (responsible == ResponsibleBlockResolver.pack(x, y, z)) {
+			return null;
 		}
+		return reinMan.getReinforcement(world, ResponsibleBlockResolver.unpackX(responsible),
+				ResponsibleBlockResolver.unpackY(responsible), ResponsibleBlockResolver.unpackZ(responsible));
 	}
 
 	/**
@@ -157,206 +136,19 @@ public final class ReinforcementLogic {
 	 * @param block Block to get responsible block for
 	 * @return Block which reinforcement would protect the given block
 	 */
-
 	public static Block getResponsibleBlock(Block block) {
-		// Do not put [double] chests in here.
-		switch (block.getType()) {
-			case DANDELION:
-			case POPPY:
-			case BLUE_ORCHID:
-			case ALLIUM:
-			case AZURE_BLUET:
-			case ORANGE_TULIP:
-			case RED_TULIP:
-			case PINK_TULIP:
-			case WHITE_TULIP:
-			case OXEYE_DAISY:
-			case ACACIA_SAPLING:
-			case BIRCH_SAPLING:
-			case DARK_OAK_SAPLING:
-			case JUNGLE_SAPLING:
-			case OAK_SAPLING:
-			case SPRUCE_SAPLING:
-			case WARPED_FUNGUS:
-			case CRIMSON_FUNGUS:
-			case BAMBOO_SAPLING:
-			case FLOWERING_AZALEA:
-			case WHEAT:
-			case CARROTS:
-			case POTATOES:
-			case BEETROOTS:
-			case SWEET_BERRY_BUSH:
-			case MELON_STEM:
-			case PUMPKIN_STEM:
-			case ATTACHED_MELON_STEM:
-			case ATTACHED_PUMPKIN_STEM:
-			case WARPED_ROOTS:
-			case CRIMSON_ROOTS:
-			case NETHER_SPROUTS:
-			case WITHER_ROSE:
-			case LILY_OF_THE_VALLEY:
-			case CORNFLOWER:
-			case SEA_PICKLE:
-			case FERN:
-			case KELP:
-			case GRASS:
-			case SEAGRASS:
-			case TUBE_CORAL:
-			case TUBE_CORAL_FAN:
-			case BRAIN_CORAL:
-			case BRAIN_CORAL_FAN:
-			case BUBBLE_CORAL:
-			case BUBBLE_CORAL_FAN:
-			case FIRE_CORAL:
-			case FIRE_CORAL_FAN:
-			case HORN_CORAL:
-			case HORN_CORAL_FAN:
-			case DEAD_TUBE_CORAL:
-			case DEAD_TUBE_CORAL_FAN:
-			case DEAD_BRAIN_CORAL:
-			case DEAD_BRAIN_CORAL_FAN:
-			case DEAD_BUBBLE_CORAL:
-			case DEAD_BUBBLE_CORAL_FAN:
-			case DEAD_FIRE_CORAL:
-			case DEAD_FIRE_CORAL_FAN:
-			case DEAD_HORN_CORAL:
-			case DEAD_HORN_CORAL_FAN:
-			case SMALL_DRIPLEAF:
-			case NETHER_WART: {
-				return block.getRelative(BlockFace.DOWN);
-			}
-			case SUGAR_CANE:
-			case BAMBOO:
-			case ROSE_BUSH:
-			case TWISTING_VINES_PLANT:
-			case BIG_DRIPLEAF_STEM:
-			case CACTUS:
-			case SUNFLOWER:
-			case LILAC:
-			case TALL_GRASS:
-			case LARGE_FERN:
-			case TALL_SEAGRASS:
-			case KELP_PLANT:
-			case PEONY: {
-				// scan downwards for first different block
-				Block below = block.getRelative(BlockFace.DOWN);
-				while (below.getType() == block.getType()) {
-					below = below.getRelative(BlockFace.DOWN);
-				}
-				return below;
-			}
-			case SPORE_BLOSSOM:
-			case HANGING_ROOTS: {
-				return block.getRelative(BlockFace.UP);
-			}
-			case ACACIA_DOOR:
-			case BIRCH_DOOR:
-			case DARK_OAK_DOOR:
-			case IRON_DOOR:
-			case SPRUCE_DOOR:
-			case JUNGLE_DOOR:
-			case WARPED_DOOR:
-			case CRIMSON_DOOR:
-			case OAK_DOOR: {
-				if (block.getRelative(BlockFace.UP).getType() != block.getType()) {
-					// block is upper half of a door
-					return block.getRelative(BlockFace.DOWN);
-				}
-				return block;
-			}
-			case BLACK_BED:
-			case BLUE_BED:
-			case BROWN_BED:
-			case CYAN_BED:
-			case GRAY_BED:
-			case GREEN_BED:
-			case MAGENTA_BED:
-			case LIME_BED:
-			case ORANGE_BED:
-			case PURPLE_BED:
-			case PINK_BED:
-			case WHITE_BED:
-			case LIGHT_GRAY_BED:
-			case LIGHT_BLUE_BED:
-			case RED_BED:
-			case YELLOW_BED: {
-				Bed bed = (Bed) block.getBlockData();
-				if (bed.getPart() == Bed.Part.HEAD) {
-					return block.getRelative(bed.getFacing().getOppositeFace());
-				}
-				return block;
-			}
-			case TUBE_CORAL_WALL_FAN:
-			case BRAIN_CORAL_WALL_FAN:
-			case BUBBLE_CORAL_WALL_FAN:
-			case FIRE_CORAL_WALL_FAN:
-			case HORN_CORAL_WALL_FAN:
-			case DEAD_TUBE_CORAL_WALL_FAN:
-			case DEAD_BRAIN_CORAL_WALL_FAN:
-			case DEAD_BUBBLE_CORAL_WALL_FAN:
-			case DEAD_FIRE_CORAL_WALL_FAN:
-			case DEAD_HORN_CORAL_WALL_FAN: {
-				CoralWallFan cwf = (CoralWallFan) block.getBlockData();
-				return block.getRelative(cwf.getFacing().getOppositeFace());
-			}
-			case SMALL_AMETHYST_BUD:
-			case MEDIUM_AMETHYST_BUD:
-			case LARGE_AMETHYST_BUD: {
-				AmethystCluster amethyst = (AmethystCluster) block.getBlockData();
-				return block.getRelative(amethyst.getFacing().getOppositeFace());
-			}
-			case WEEPING_VINES: {
-				// scan upwards
-				Block above = block.getRelative(BlockFace.UP);
-				while (above.getType() == block.getType() || above.getType() == Material.WEEPING_VINES_PLANT) {
-					above = above.getRelative(BlockFace.UP);
-				}
-				return above;
-			}
-			case CAVE_VINES: {
-				// scan upwards for first different block
-				Block above = block.getRelative(BlockFace.UP);
-				while (above.getType() == block.getType() || above.getType() == Material.CAVE_VINES_PLANT) {
-					above = above.getRelative(BlockFace.UP);
-				}
-				return above;
-			}
-			case CAVE_VINES_PLANT:
-			case WEEPING_VINES_PLANT: {
-				// scan upwards for first different block
-				Block above = block.getRelative(BlockFace.UP);
-				while (above.getType() == block.getType()) {
-					above = above.getRelative(BlockFace.UP);
-				}
-				return above;
-			}
-			case TWISTING_VINES: {
-				// scan downwards for first different block
-				Block below = block.getRelative(BlockFace.DOWN);
-				while (below.getType() == block.getType() || below.getType() == Material.TWISTING_VINES_PLANT) {
-					below = below.getRelative(BlockFace.DOWN);
-				}
-				return below;
-			}
-			case BIG_DRIPLEAF: {
-				// scan downwards for first different block
-				Block below = block.getRelative(BlockFace.DOWN);
-				while (below.getType() == block.getType() || below.getType() == Material.BIG_DRIPLEAF_STEM) {
-					below = below.getRelative(BlockFace.DOWN);
-				}
-				return below;
-			}
-			case POINTED_DRIPSTONE:
-				PointedDripstone dripstone = (PointedDripstone) block.getBlockData();
-				Block direction = block.getRelative(dripstone.getVerticalDirection().getOppositeFace());
-				while (direction.getType() == block.getType()) {
-					direction = direction.getRelative(dripstone.getVerticalDirection().getOppositeFace());
-				}
-				return direction;
-			default: {
-				return block;
-			}
+		Material type = block.getType();
+		if (ResponsibleBlockResolver.getStrategy(type) == ResponsibleBlockResolver.Strategy.SELF) {
+			return block;
+		}
+		long responsible = ResponsibleBlockResolver.resolve(block, type);
+		int x = ResponsibleBlockResolver.unpackX(responsible);
+		int y = ResponsibleBlockResolver.unpackY(responsible);
+		int z = ResponsibleBlockResolver.unpackZ(responsible);
+		if (x == block.getX() && y == block.getY() && z == block.getZ()) {
+			return block;
 		}
+		return block.getWorld().getBlockAt(x, y, z);
 	}
 
 	/**
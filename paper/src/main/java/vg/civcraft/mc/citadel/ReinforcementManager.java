@@ -1,20 +1,71 @@
 package vg.civcraft.mc.citadel;
 
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import vg.civcraft.mc.citadel.model.CitadelChunkData;
 import vg.civcraft.mc.citadel.model.Reinforcement;
+import vg.civcraft.mc.citadel.model.ReinforcementOccupancy;
+import vg.civcraft.mc.civmodcore.CivModCorePlugin;
 import vg.civcraft.mc.civmodcore.world.locations.chunkmeta.api.BlockBasedChunkMetaView;
 import vg.civcraft.mc.civmodcore.world.locations.chunkmeta.block.table.TableBasedDataObject;
 import vg.civcraft.mc.civmodcore.world.locations.chunkmeta.block.table.TableStorageEngine;
 
 public class ReinforcementManager {
 
+	private record WorldID(World world, short id) {
+	}
+
 	private BlockBasedChunkMetaView<CitadelChunkData, TableBasedDataObject, TableStorageEngine<Reinforcement>> chunkMetaData;
+	// may be null if disabled
+	private final ReinforcementOccupancy occupancy;
+	// lookups are almost always in the same world as the previous one
+	private volatile WorldID lastWorld;
+	// reused for lookups from the main thread, the chunk meta lookup only reads the location it is given
+	private final Location lookupLocation;
+	// world currently set on the lookup location, setting it again would allocate a new weak reference
+	private World lookupWorld;
 
 	ReinforcementManager(
-			BlockBasedChunkMetaView<CitadelChunkData, TableBasedDataObject, TableStorageEngine<Reinforcement>> chunkMetaData) {
+			BlockBasedChunkMetaView<CitadelChunkData, TableBasedDataObject, TableStorageEngine<Reinforcement>> chunkMetaData,
+			ReinforcementOccupancy occupancy) {
 		this.chunkMetaData = chunkMetaData;
+		this.occupancy = occupancy;
+		this.lookupLocation = new Location(null, 0, 0, 0);
+	}
+
+	/**
+	 * @return Internal id of the given world
+	 */
+	public short getWorldID(World world) {
+		WorldID cached = lastWorld;
+		if (cached != null && cached.world == world) {
+			return cached.id;
+		}
+		short id = CivModCorePlugin.getInstance().getWorldIdManager().getInternalWorldId(world);
+		lastWorld = new WorldID(world, id);
+		return id;
+	}
+
+	/**
+	 * Checks the occupancy bitmap of the chunk, which answers most lookups of unreinforced blocks without any
+	 * allocation
+	 *
+	 * @return True if the block is certainly not reinforced
+	 */
+	private boolean isCertainlyUnreinforced(World world, int x, int y, int z) {
+		return occupancy != null && !occupancy.mayBeReinforced(getWorldID(world), x, y, z);
+	}
+
+	/**
+	 * Checks the occupancy bitmap of a whole chunk, which lets callers skip resolving the protecting block for
+	 * chunks without any reinforcements
+	 *
+	 * @return True if no block in the chunk is reinforced
+	 */
+	public boolean isChunkCertainlyUnreinforced(World world, int chunkX, int chunkZ) {
+		return occupancy != null && !occupancy.mayHaveReinforcements(getWorldID(world), chunkX, chunkZ);
 	}
 
 	/**
@@ -25,9 +76,55 @@ public class ReinforcementManager {
 	 *         there
 	 */
 	public Reinforcement getReinforcement(Location location) {
+		if (isCertainlyUnreinforced(location.getWorld(), location.getBlockX(), location.getBlockY(),
+				location.getBlockZ())) {
+			return null;
+		}
 		return (Reinforcement) chunkMetaData.get(location);
 	}
 
+	/**
+	 * Gets the reinforcement at the given block coordinates if one exists. Does not allocate anything when called
+	 * from the main thread
+	 *
+	 * @param world World the block is in
+	 * @param x     X-coordinate of the block
+	 * @param y     Y-coordinate of the block
+	 * @param z     Z-coordinate of the block
+	 * @return Reinforcement at the coordinates or null if no reinforcement exists there
+	 */
+	public Reinforcement getReinforcement(World world, int x, int y, int z) {
+		Location location = getLookupLocation(world, getWorldID(world), x, y, z);
+		if (location == null) {
+			return null;
+		}
+		return (Reinforcement) chunkMetaData.get(location);
+	}
+
+	/**
+	 * Resolves the location to look up in the chunk meta data for the given block coordinates. On the main thread
+	 * the same location instance is returned every time, so it must not be kept
+	 *
+	 * @return Location to look up or null if the block is certainly not reinforced
+	 */
+	Location getLookupLocation(World world, short worldID, int x, int y, int z) {
+		if (occupancy != null && !occupancy.mayBeReinforced(worldID, x, y, z)) {
+			return null;
+		}
+		if (!Bukkit.isPrimaryThread()) {
+			return new Location(world, x, y, z);
+		}
+		Location location = lookupLocation;
+		if (lookupWorld != world) {
+			location.setWorld(world);
+			lookupWorld = world;
+		}
+		location.setX(x);
+		location.setY(y);
+		location.setZ(z);
+		return location;
+	}
+
 	/**
 	 * Gets the reinforcement for the given block if one exists
 	 * 
@@ -35,7 +132,7 @@ public class ReinforcementManager {
 	 * @return Reinforcement for the block or null if no reinforcement exists there
 	 */
 	public Reinforcement getReinforcement(Block block) {
-		return getReinforcement(block.getLocation());
+		return getReinforcement(block.getWorld(), block.getX(), block.getY(), block.getZ());
 	}
 
 	/**
@@ -45,7 +142,12 @@ public class ReinforcementManager {
 	 * @param reinforcement Reinforcement to insert
 	 */
 	public void putReinforcement(Reinforcement reinforcement) {
+		if (occupancy != null) {
+			occupancy.reinforcementPlaced(reinforcement.getWorldID(), reinforcement.getBlockX(),
+					reinforcement.getBlockY(), reinforcement.getBlockZ());
+		}
 		chunkMetaData.put(reinforcement);
+		reinforcement.notifyTransferCache();
 	}
 
 	void shutDown() {
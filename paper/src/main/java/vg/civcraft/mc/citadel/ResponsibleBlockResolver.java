@@ -0,0 +1,377 @@
+package vg.civcraft.mc.citadel;
+
+import java.util.Collections;
+import java.util.Map;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Directional;
+import org.bukkit.block.data.type.Bed;
+import org.bukkit.block.data.type.Chest;
+import org.bukkit.block.data.type.PointedDripstone;
+import vg.civcraft.mc.citadel.model.ColumnAnchorCache;
+import vg.civcraft.mc.citadel.model.ColumnCacheStat;
+import vg.civcraft.mc.civmodcore.world.WorldUtils;
+
+/**
+ * Decides which block's reinforcement protects a given block, based on a table indexed by material ordinal. Blocks
+ * whose material is resolved to themselves, which is the vast majority, never need more than one array access.
+ * Resolved positions are returned packed into a single long to avoid allocating blocks or locations. The tables
+ * are built from built-in defaults, which can be extended through the config.
+ */
+public final class ResponsibleBlockResolver {
+
+	public enum Strategy {
+		/**
+		 * Protected by its own reinforcement
+		 */
+		SELF,
+		/**
+		 * Protected by the block below, for example crops
+		 */
+		BELOW,
+		/**
+		 * Protected by the block above, for example hanging roots
+		 */
+		ABOVE,
+		/**
+		 * Protected by the first block below which is neither of the same type nor its companion
+		 */
+		SCAN_DOWN,
+		/**
+		 * Protected by the first block above which is neither of the same type nor its companion
+		 */
+		SCAN_UP,
+		/**
+		 * Upper halves of doors are protected by the lower half
+		 */
+		DOOR,
+		/**
+		 * Bed heads are protected by the foot
+		 */
+		BED,
+		/**
+		 * Protected by the block it is attached to, for example coral wall fans
+		 */
+		ATTACHED,
+		/**
+		 * Protected by the block the dripstone column hangs from or stands on
+		 */
+		DRIPSTONE,
+		/**
+		 * Protected by itself, but both halves of a double chest also protect each other
+		 */
+		DOUBLE_CHEST
+	}
+
+	/**
+	 * Override of the built-in behavior for a single material, any null component keeps the default
+	 *
+	 * @param strategy  Strategy used to find the block protecting this material
+	 * @param companion Material which continues a scanned column besides the material itself
+	 * @param plant     Whether the material is treated as a plant when reinforcing it
+	 */
+	public record Rule(Strategy strategy, Material companion, Boolean plant) {
+	}
+
+	private static Strategy[] strategies;
+	// material which continues a scanned column, usually the material itself
+	private static Material[] companions;
+	private static boolean[] plants;
+	private static ColumnAnchorCache columnCache;
+
+	static {
+		configure(Collections.emptyMap());
+	}
+
+	private ResponsibleBlockResolver() {
+	}
+
+	/**
+	 * Rebuilds the lookup tables from the built-in defaults and applies the given overrides on top. Meant to be
+	 * called once on enable, before any listener may resolve blocks
+	 *
+	 * @param overrides Rules to apply over the defaults
+	 */
+	public static void configure(Map<Material, Rule> overrides) {
+		Material[] materials = Material.values();
+		Strategy[] newStrategies = new Strategy[materials.length];
+		Material[] newCompanions = new Material[materials.length];
+		boolean[] newPlants = new boolean[materials.length];
+		for (Material mat : materials) {
+			newStrategies[mat.ordinal()] = Strategy.SELF;
+			newCompanions[mat.ordinal()] = mat;
+		}
+		applyDefaults(newStrategies, newCompanions, newPlants);
+		for (Map.Entry<Material, Rule> entry : overrides.entrySet()) {
+			int ordinal = entry.getKey().ordinal();
+			Rule rule = entry.getValue();
+			if (rule.strategy() != null) {
+				newStrategies[ordinal] = rule.strategy();
+			}
+			if (rule.companion() != null) {
+				newCompanions[ordinal] = rule.companion();
+			}
+			if (rule.plant() != null) {
+				newPlants[ordinal] = rule.plant();
+			}
+		}
+		strategies = newStrategies;
+		companions = newCompanions;
+		plants = newPlants;
+	}
+
+	private static void applyDefaults(Strategy[] strategies, Material[] companions, boolean[] plants) {
+		set(strategies, Strategy.BELOW, Material.DANDELION, Material.POPPY, Material.BLUE_ORCHID, Material.ALLIUM,
+				Material.AZURE_BLUET, Material.ORANGE_TULIP, Material.RED_TULIP, Material.PINK_TULIP,
+				Material.WHITE_TULIP, Material.OXEYE_DAISY, Material.ACACIA_SAPLING, Material.BIRCH_SAPLING,
+				Material.DARK_OAK_SAPLING, Material.JUNGLE_SAPLING, Material.OAK_SAPLING, Material.SPRUCE_SAPLING,
+				Material.WARPED_FUNGUS, Material.CRIMSON_FUNGUS, Material.BAMBOO_SAPLING, Material.FLOWERING_AZALEA,
+				Material.WHEAT, Material.CARROTS, Material.POTATOES, Material.BEETROOTS, Material.SWEET_BERRY_BUSH,
+				Material.MELON_STEM, Material.PUMPKIN_STEM, Material.ATTACHED_MELON_STEM,
+				Material.ATTACHED_PUMPKIN_STEM, Material.WARPED_ROOTS, Material.CRIMSON_ROOTS,
+				Material.NETHER_SPROUTS, Material.WITHER_ROSE, Material.LILY_OF_THE_VALLEY, Material.CORNFLOWER,
+				Material.SEA_PICKLE, Material.FERN, Material.KELP, Material.GRASS, Material.SEAGRASS,
+				Material.TUBE_CORAL, Material.TUBE_CORAL_FAN, Material.BRAIN_CORAL, Material.BRAIN_CORAL_FAN,
+				Material.BUBBLE_CORAL, Material.BUBBLE_CORAL_FAN, Material.FIRE_CORAL, Material.FIRE_CORAL_FAN,
+				Material.HORN_CORAL, Material.HORN_CORAL_FAN, Material.DEAD_TUBE_CORAL, Material.DEAD_TUBE_CORAL_FAN,
+				Material.DEAD_BRAIN_CORAL, Material.DEAD_BRAIN_CORAL_FAN, Material.DEAD_BUBBLE_CORAL,
+				Material.DEAD_BUBBLE_CORAL_FAN, Material.DEAD_FIRE_CORAL, Material.DEAD_FIRE_CORAL_FAN,
+				Material.DEAD_HORN_CORAL, Material.DEAD_HORN_CORAL_FAN, Material.SMALL_DRIPLEAF,
+				Material.NETHER_WART);
+		set(strategies, Strategy.SCAN_DOWN, Material.SUGAR_CANE, Material.BAMBOO, Material.ROSE_BUSH,
+				Material.TWISTING_VINES_PLANT, Material.BIG_DRIPLEAF_STEM, Material.CACTUS, Material.SUNFLOWER,
+				Material.LILAC, Material.TALL_GRASS, Material.LARGE_FERN, Material.TALL_SEAGRASS,
+				Material.KELP_PLANT, Material.PEONY);
+		set(strategies, Strategy.ABOVE, Material.SPORE_BLOSSOM, Material.HANGING_ROOTS);
+		set(strategies, Strategy.DOOR, Material.ACACIA_DOOR, Material.BIRCH_DOOR, Material.DARK_OAK_DOOR,
+				Material.IRON_DOOR, Material.SPRUCE_DOOR, Material.JUNGLE_DOOR, Material.WARPED_DOOR, Material.CRIMSON_DOOR,
+				Material.OAK_DOOR);
+		set(strategies, Strategy.BED, Material.BLACK_BED, Material.BLUE_BED, Material.BROWN_BED, Material.CYAN_BED,
+				Material.GRAY_BED, Material.GREEN_BED, Material.MAGENTA_BED, Material.LIME_BED, Material.ORANGE_BED,
+				Material.PURPLE_BED, Material.PINK_BED, Material.WHITE_BED, Material.LIGHT_GRAY_BED,
+				Material.LIGHT_BLUE_BED, Material.RED_BED, Material.YELLOW_BED);
+		set(strategies, Strategy.ATTACHED, Material.TUBE_CORAL_WALL_FAN, Material.BRAIN_CORAL_WALL_FAN,
+				Material.BUBBLE_CORAL_WALL_FAN, Material.FIRE_CORAL_WALL_FAN, Material.HORN_CORAL_WALL_FAN,
+				Material.DEAD_TUBE_CORAL_WALL_FAN, Material.DEAD_BRAIN_CORAL_WALL_FAN,
+				Material.DEAD_BUBBLE_CORAL_WALL_FAN, Material.DEAD_FIRE_CORAL_WALL_FAN,
+				Material.DEAD_HORN_CORAL_WALL_FAN, Material.SMALL_AMETHYST_BUD, Material.MEDIUM_AMETHYST_BUD,
+				Material.LARGE_AMETHYST_BUD);
+		set(strategies, Strategy.SCAN_UP, Material.WEEPING_VINES, Material.CAVE_VINES, Material.CAVE_VINES_PLANT,
+				Material.WEEPING_VINES_PLANT);
+		set(strategies, Strategy.SCAN_DOWN, Material.TWISTING_VINES, Material.BIG_DRIPLEAF);
+		companions[Material.WEEPING_VINES.ordinal()] = Material.WEEPING_VINES_PLANT;
+		companions[Material.CAVE_VINES.ordinal()] = Material.CAVE_VINES_PLANT;
+		companions[Material.TWISTING_VINES.ordinal()] = Material.TWISTING_VINES_PLANT;
+		companions[Material.BIG_DRIPLEAF.ordinal()] = Material.BIG_DRIPLEAF_STEM;
+		set(strategies, Strategy.DRIPSTONE, Material.POINTED_DRIPSTONE);
+		set(strategies, Strategy.DOUBLE_CHEST, Material.CHEST, Material.TRAPPED_CHEST);
+		setPlants(plants, Material.DANDELION, Material.POPPY, Material.BLUE_ORCHID, Material.ALLIUM,
+				Material.AZURE_BLUET, Material.ORANGE_TULIP, Material.RED_TULIP, Material.PINK_TULIP,
+				Material.WHITE_TULIP, Material.OXEYE_DAISY, Material.ACACIA_SAPLING, Material.BIRCH_SAPLING,
+				Material.DARK_OAK_SAPLING, Material.JUNGLE_SAPLING, Material.OAK_SAPLING, Material.SPRUCE_SAPLING,
+				Material.FLOWERING_AZALEA, Material.WHEAT, Material.CARROTS, Material.POTATOES, Material.BEETROOTS,
+				Material.MELON_STEM, Material.PUMPKIN_STEM, Material.ATTACHED_MELON_STEM,
+				Material.ATTACHED_PUMPKIN_STEM, Material.NETHER_WART, Material.SUGAR_CANE, Material.CACTUS,
+				Material.SUNFLOWER, Material.LILAC, Material.PEONY, Material.TALL_GRASS, Material.GRASS,
+				Material.TWISTING_VINES, Material.TWISTING_VINES_PLANT, Material.WEEPING_VINES,
+				Material.WEEPING_VINES_PLANT, Material.KELP, Material.KELP_PLANT, Material.BIG_DRIPLEAF,
+				Material.BIG_DRIPLEAF_STEM, Material.CAVE_VINES, Material.CAVE_VINES_PLANT, Material.SMALL_DRIPLEAF,
+				Material.SWEET_BERRY_BUSH, Material.BAMBOO, Material.BAMBOO_SAPLING, Material.SEA_PICKLE,
+				Material.POINTED_DRIPSTONE);
+	}
+
+	/**
+	 * Sets the cache used to remember the anchors of plant columns, null disables caching
+	 */
+	public static void setColumnCache(ColumnAnchorCache cache) {
+		columnCache = cache;
+	}
+
+	/**
+	 * @return Current statistics of the column anchor cache or null if it is disabled
+	 */
+	public static ColumnCacheStat getColumnCacheStat() {
+		ColumnAnchorCache cache = columnCache;
+		return cache == null ? null : cache.getStat();
+	}
+
+	private static void set(Strategy[] strategies, Strategy strategy, Material... materials) {
+		for (Material mat : materials) {
+			strategies[mat.ordinal()] = strategy;
+		}
+	}
+
+	private static void setPlants(boolean[] plants, Material... materials) {
+		for (Material mat : materials) {
+			plants[mat.ordinal()] = true;
+		}
+	}
+
+	/**
+	 * @return Strategy used to find the block protecting blocks of the given material
+	 */
+	public static Strategy getStrategy(Material material) {
+		return strategies[material.ordinal()];
+	}
+
+	/**
+	 * @return True if blocks of the given material are plants, which can not be reinforced directly
+	 */
+	public static boolean isPlant(Material material) {
+		return plants[material.ordinal()];
+	}
+
+	/**
+	 * Packs block coordinates into a single long, in the same layout as Minecraft's BlockPos
+	 */
+	public static long pack(int x, int y, int z) {
+		return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+	}
+
+	public static int unpackX(long packed) {
+		return (int) (packed >> 38);
+	}
+
+	public static int unpackY(long packed) {
+		return (int) (packed << 52 >> 52);
+	}
+
+	public static int unpackZ(long packed) {
+		return (int) (packed << 26 >> 38);
+	}
+
+	/**
+	 * Finds the block whose reinforcement protects the given block, see
+	 * {@link ReinforcementLogic#getResponsibleBlock(Block)}. Double chests are resolved to themselves
+	 *
+	 * @param block Block to resolve
+	 * @param type  Type of the block
+	 * @return Packed position of the responsible block, see {@link #pack(int, int, int)}
+	 */
+	public static long resolve(Block block, Material type) {
+		int x = block.getX();
+		int y = block.getY();
+		int z = block.getZ();
+		switch (strategies[type.ordinal()]) {
+			case BELOW:
+				return pack(x, y - 1, z);
+			case ABOVE:
+				return pack(x, y + 1, z);
+			case SCAN_DOWN:
+				return pack(x, scan(block.getWorld(), x, y, z, -1, type, companions[type.ordinal()]), z);
+			case SCAN_UP:
+				return pack(x, scan(block.getWorld(), x, y, z, 1, type, companions[type.ordinal()]), z);
+			case DOOR:
+				if (block.getWorld().getType(x, y + 1, z) != type) {
+					// block is upper half of a door
+					return pack(x, y - 1, z);
+				}
+				return pack(x, y, z);
+			case BED: {
+				if (!(block.getBlockData() instanceof Bed bed)) {
+					return pack(x, y, z);
+				}
+				if (bed.getPart() == Bed.Part.HEAD) {
+					BlockFace face = bed.getFacing().getOppositeFace();
+					return pack(x + face.getModX(), y, z + face.getModZ());
+				}
+				return pack(x, y, z);
+			}
+			case ATTACHED: {
+				BlockData data = block.getBlockData();
+				if (!(data instanceof Directional directional)) {
+					return pack(x, y, z);
+				}
+				BlockFace face = directional.getFacing().getOppositeFace();
+				return pack(x + face.getModX(), y + face.getModY(), z + face.getModZ());
+			}
+			case DRIPSTONE: {
+				if (!(block.getBlockData() instanceof PointedDripstone dripstone)) {
+					return pack(x, y, z);
+				}
+				int step = dripstone.getVerticalDirection().getOppositeFace().getModY();
+				return pack(x, scan(block.getWorld(), x, y, z, step, type, type), z);
+			}
+			default:
+				return pack(x, y, z);
+		}
+	}
+
+	/**
+	 * Checks whether the given strategy can be used for blocks of the given material, some strategies need the block
+	 * data of beds, dripstone or chests
+	 *
+	 * @return True if the strategy may be configured for the material
+	 */
+	public static boolean supports(Strategy strategy, Material material) {
+		switch (strategy) {
+			case BED:
+			case DRIPSTONE:
+			case DOUBLE_CHEST:
+				break;
+			default:
+				return true;
+		}
+		if (!material.isBlock() || material.isLegacy()) {
+			return false;
+		}
+		BlockData data = material.createBlockData();
+		switch (strategy) {
+			case BED:
+				return data instanceof Bed;
+			case DRIPSTONE:
+				return data instanceof PointedDripstone;
+			default:
+				return data instanceof Chest;
+		}
+	}
+
+	private static int scan(World world, int x, int y, int z, int step, Material type, Material companion) {
+		ColumnAnchorCache cache = columnCache;
+		if (cache != null && Bukkit.isPrimaryThread()) {
+			return cache.findAnchor(world, x, y, z, step, type, companion);
+		}
+		int scanY = y + step;
+		Material current = world.getType(x, scanY, z);
+		while (current == type || current == companion) {
+			scanY += step;
+			current = world.getType(x, scanY, z);
+		}
+		return scanY;
+	}
+
+	/**
+	 * Finds the other block whose reinforcement protects the given block, if there is one. Unlike
+	 * {@link #resolve(Block, Material)} this also considers the other half of double chests, since either half being
+	 * reinforced protects the whole chest
+	 *
+	 * @param block Block to resolve
+	 * @param type  Type of the block
+	 * @return Packed position of the other responsible block or the packed position of the block itself if it is
+	 * only protected by its own reinforcement
+	 */
+	static long resolveProtecting(Block block, Material type) {
+		if (strategies[type.ordinal()] != Strategy.DOUBLE_CHEST) {
+			return resolve(block, type);
+		}
+		if (!(block.getBlockData() instanceof Chest chest)) {
+			return pack(block.getX(), block.getY(), block.getZ());
+		}
+		BlockFace face;
+		switch (chest.getType()) {
+			case LEFT:
+				face = WorldUtils.turnClockwise(chest.getFacing());
+				break;
+			case RIGHT:
+				face = WorldUtils.turnAntiClockwise(chest.getFacing());
+				break;
+			default:
+				return pack(block.getX(), block.getY(), block.getZ());
+		}
+		return pack(block.getX() + face.getModX(), block.getY(), block.getZ() + face.getModZ());
+	}
+}
@@ -1,5 +1,14 @@
 package vg.civcraft.mc.citadel.activity;
 
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -11,12 +20,15 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
 import java.util.logging.Logger;
 
 import org.bukkit.Bukkit;
@@ -28,6 +40,8 @@ import vg.civcraft.mc.citadel.Citadel;
 import vg.civcraft.mc.citadel.CitadelPermissionHandler;
 import vg.civcraft.mc.citadel.model.ActivityDB;
 import vg.civcraft.mc.citadel.model.ActivityItem;
+import vg.civcraft.mc.citadel.model.PermissionDecisionCache;
+import vg.civcraft.mc.citadel.model.PlayerPermissionSnapshots;
 import vg.civcraft.mc.civmodcore.CivModCorePlugin;
 import vg.civcraft.mc.civmodcore.dao.ManagedDatasource;
 import vg.civcraft.mc.civmodcore.world.locations.global.WorldIDManager;
@@ -37,24 +51,47 @@ import vg.civcraft.mc.namelayer.group.Group;
 
 public class ActivityMap {
 
+	/**
+	 * @param groupIds Ids of all groups the player has the bypass permission on, never modified
+	 * @param byRank   Those of the groups on which the bypass permission comes from the player's rank, as opposed to
+	 *                 the admin bypass
+	 */
+	private record BypassGroups(IntSet groupIds, List<Group> byRank, long created) {
+	}
+
+	// must be a power of two
+	private static final int REGION_LOCK_STRIPES = 64;
+
 	private static final long SAVE_CHANGES_INTERVAL_MS = 60L * 1000L; // 1 min
 	private static final long UNLOAD_INTERVAL_MS = 60L * 1000L; // 1 min
+	private static final long BYPASS_GROUPS_MAX_AGE_MS = 10L * 60L * 1000L; // 10 min
 
 	private final Logger logger;
 	private final ActivityDB activityDB;
 	private final ScheduledExecutorService scheduler;
+	// loads regions missed by lookups, so the main thread never waits for the database
+	private final ExecutorService regionLoader;
 	private AtomicBoolean loadChunkDisabled;
 	private Thread loadChunkThread;
 	private final WorldIDManager worldIdManager;
-	private final Map<Short, Map<XZKey, RegionData>> data; // world, xz, group, activity/entry
+	// packed region key, see RegionCoord#toKey. Guarded by dataLock, which is only held for single map operations and
+	// never while waiting for a region lock or the database
+	private final Long2ObjectOpenHashMap<RegionData> data;
+	private final StampedLock dataLock;
+	// guard changes to region data, reading group times needs no lock at all, see RegionData
+	private final StampedLock[] regionLocks;
 	private final ConcurrentLinkedQueue<PlayerUpdate> playerUpdates;
 	private final LinkedBlockingQueue<ChunkCoord> chunkLoadQueue;
 	private final ConcurrentLinkedQueue<ChunkCoord> chunkUnloadQueue;
 	private final ActivityMapTimePoll timePoll;
 	private final AtomicInteger unloadCount;
+	private final AtomicLong provisionalLookups;
+	private final Map<UUID, BypassGroups> bypassGroups;
+	private final AtomicLong bypassGroupBuilds;
 
 	private final Set<UUID> worlds;
 	private final int resolution;
+	private final int chunksPerRegion;
 	private final int radius;
 	private final long entryRefreshAfterMs;
 	private final long radiusRefreshAfterMs;
@@ -66,16 +103,26 @@ public class ActivityMap {
 		this.logger = logger;
 		this.activityDB = new ActivityDB(source);
 		this.scheduler = Executors.newScheduledThreadPool(2);
+		this.regionLoader = Executors.newSingleThreadExecutor(r -> new Thread(r, "citadel-activity-map-region-loading"));
 		this.worldIdManager = CivModCorePlugin.getInstance().getWorldIdManager();
-		this.data = new ConcurrentHashMap<>();
+		this.data = new Long2ObjectOpenHashMap<>();
+		this.dataLock = new StampedLock();
+		this.regionLocks = new StampedLock[REGION_LOCK_STRIPES];
+		for (int i = 0; i < REGION_LOCK_STRIPES; i++) {
+			this.regionLocks[i] = new StampedLock();
+		}
 		this.playerUpdates = new ConcurrentLinkedQueue<>();
 		this.chunkLoadQueue = new LinkedBlockingQueue<>();
 		this.chunkUnloadQueue = new ConcurrentLinkedQueue<>();
 		this.timePoll = new ActivityMapTimePoll();
 		this.unloadCount = new AtomicInteger();
+		this.provisionalLookups = new AtomicLong();
+		this.bypassGroups = new ConcurrentHashMap<>();
+		this.bypassGroupBuilds = new AtomicLong();
 
-		int resolution = 16 * (Citadel.getInstance().getConfigManager().getActivityMapResolution() / 16);
-		this.resolution = resolution <= 0 ? 1 : resolution;
+		// the config only allows multiples of 16, regions must consist of whole chunks
+		this.resolution = Math.max(16, 16 * (Citadel.getInstance().getConfigManager().getActivityMapResolution() / 16));
+		this.chunksPerRegion = this.resolution / 16;
 
 		this.radius = Citadel.getInstance().getConfigManager().getActivityMapRadius();
 		this.entryRefreshAfterMs = Citadel.getInstance().getConfigManager().getActivityEntryRefreshAfterMs();
@@ -134,6 +181,8 @@ public class ActivityMap {
 		loadChunkThread.interrupt();
 
 		scheduler.shutdown();
+		// pending region loads are only prefetches, nothing is lost by dropping them
+		regionLoader.shutdownNow();
 
 		try {
 			if (!scheduler.awaitTermination(60, TimeUnit.SECONDS))
@@ -151,42 +200,148 @@ public class ActivityMap {
 		logger.info("ActivityMap changes are saved.");
 	}
 
+	/**
+	 * Never waits for the database or for writers of the region. If the region is not loaded yet, its load is queued
+	 * and null is returned, so the caller falls back to the provisional value until the region is available
+	 */
 	private Instant getActivity(RegionCoord regionCoord, int groupId) {
-		RegionData regionData = getRegion(regionCoord, true);
-
-		synchronized (regionData) {
-			GroupData groupData = regionData.get(groupId);
-			Instant activity = groupData != null ? groupData.activity : null;
-			return activity;
+		RegionData regionData = getRegion(regionCoord, false);
+		if (!regionData.isLoaded()) {
+			provisionalLookups.incrementAndGet();
+			queueRegionLoad(regionCoord, regionData);
+			return null;
 		}
+
+		long activity = regionData.getActivity(groupId);
+		return activity == 0 ? null : Instant.ofEpochSecond(activity);
 	}
 
 	private RegionData getRegion(RegionCoord regionCoord, boolean loadIfNotLoaded) {
-		Map<XZKey, RegionData> worldData = data.computeIfAbsent(regionCoord.worldId(), a -> new ConcurrentHashMap<>());
-		XZKey regionKey = new XZKey(regionCoord.x(), regionCoord.z());
-		RegionData regionData = worldData.computeIfAbsent(regionKey, a -> new RegionData());
+		long regionKey = regionCoord.key();
+		RegionData regionData;
+		long stamp = dataLock.readLock();
+		try {
+			regionData = data.get(regionKey);
+		} finally {
+			dataLock.unlockRead(stamp);
+		}
+		if (regionData == null) {
+			stamp = dataLock.writeLock();
+			try {
+				regionData = data.get(regionKey);
+				if (regionData == null) {
+					regionData = new RegionData(chunksPerRegion);
+					data.put(regionKey, regionData);
+				}
+			} finally {
+				dataLock.unlockWrite(stamp);
+			}
+		}
 
 		if (regionData.isLoaded() || !loadIfNotLoaded) {
 			return regionData;
 		}
 
-		synchronized (regionData) {
-			if (regionData.isLoaded()) {
-				return regionData;
+		loadNeighbourhood(regionCoord, false);
+
+		return regionData;
+	}
+
+	private StampedLock getRegionLock(long regionKey) {
+		return regionLocks[(int) HashCommon.mix(regionKey) & (REGION_LOCK_STRIPES - 1)];
+	}
+
+	private void queueRegionLoad(RegionCoord regionCoord, RegionData regionData) {
+		if (regionLoader.isShutdown() || !regionData.startLoading()) {
+			return;
+		}
+		regionLoader.execute(() -> loadNeighbourhood(regionCoord, true));
+	}
+
+	private void queuePrefetch(RegionCoord regionCoord) {
+		if (regionLoader.isShutdown()) {
+			return;
+		}
+		regionLoader.execute(() -> loadNeighbourhood(regionCoord, false));
+	}
+
+	/**
+	 * Loads every region within the activity radius around the given one which is neither loaded nor being loaded by
+	 * another thread yet, with a single range query for all of them. Regions being loaded elsewhere are not waited for
+	 *
+	 * @param center        Region in the middle of the neighbourhood
+	 * @param centerClaimed Whether the caller already started loading the center region itself
+	 */
+	private void loadNeighbourhood(RegionCoord center, boolean centerClaimed) {
+		Long2ObjectOpenHashMap<RegionData> claimed = new Long2ObjectOpenHashMap<>();
+		int minX = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int minZ = Integer.MAX_VALUE;
+		int maxZ = Integer.MIN_VALUE;
+
+		for (int xOffset = -radius; xOffset <= radius; xOffset++) {
+			int x = center.x() + xOffset;
+			for (int zOffset = -radius; zOffset <= radius; zOffset++) {
+				int z = center.z() + zOffset;
+				RegionData regionData = getRegion(new RegionCoord(center.worldId(), x, z), false);
+				boolean claimedByCaller = centerClaimed && xOffset == 0 && zOffset == 0;
+				if (!claimedByCaller && !regionData.startLoading()) {
+					continue;
+				}
+				claimed.put(RegionCoord.toKey(center.worldId(), x, z), regionData);
+				minX = Math.min(minX, x);
+				maxX = Math.max(maxX, x);
+				minZ = Math.min(minZ, z);
+				maxZ = Math.max(maxZ, z);
 			}
+		}
 
-			long start = System.nanoTime();
+		if (claimed.isEmpty()) {
+			return;
+		}
 
-			activityDB.select(regionCoord.worldId(), regionCoord.x(), regionCoord.z(), resolution, activityItem -> {
-				GroupData groupData = new GroupData(activityItem.activity());
-				regionData.put(activityItem.group(), groupData);
-			});
+		long start = System.nanoTime();
 
-			timePoll.pushTimeNano(System.nanoTime() - start);
+		// query without holding any region lock, so lookups on the main thread are never stuck behind the database
+		List<ActivityItem> activities = new ArrayList<>();
+		activityDB.selectRange(center.worldId(), minX, maxX, minZ, maxZ, resolution, activities::add);
 
-			regionData.setLoaded();
+		timePoll.pushTimeNano(System.nanoTime() - start);
 
-			return regionData;
+		Long2ObjectOpenHashMap<List<ActivityItem>> activitiesByRegion = new Long2ObjectOpenHashMap<>();
+		for (ActivityItem activityItem : activities) {
+			long regionKey = RegionCoord.toKey(center.worldId(), activityItem.x(), activityItem.z());
+			// rows of regions loaded by someone else are already known
+			if (!claimed.containsKey(regionKey)) {
+				continue;
+			}
+			List<ActivityItem> regionActivities = activitiesByRegion.get(regionKey);
+			if (regionActivities == null) {
+				regionActivities = new ArrayList<>();
+				activitiesByRegion.put(regionKey, regionActivities);
+			}
+			regionActivities.add(activityItem);
+		}
+
+		ObjectIterator<Long2ObjectMap.Entry<RegionData>> iterator = claimed.long2ObjectEntrySet().fastIterator();
+		while (iterator.hasNext()) {
+			Long2ObjectMap.Entry<RegionData> entry = iterator.next();
+			RegionData regionData = entry.getValue();
+			List<ActivityItem> regionActivities = activitiesByRegion.get(entry.getLongKey());
+			StampedLock lock = getRegionLock(entry.getLongKey());
+			long stamp = lock.writeLock();
+			try {
+				if (regionActivities != null) {
+					RegionData.GroupTimes times = regionData.editTimes();
+					for (ActivityItem activityItem : regionActivities) {
+						times.setActivity(activityItem.group(), activityItem.activity().getEpochSecond());
+					}
+					regionData.publishTimes(times);
+				}
+				regionData.setLoaded();
+			} finally {
+				lock.unlockWrite(stamp);
+			}
 		}
 	}
 
@@ -213,15 +368,20 @@ public class ActivityMap {
 				continue;
 			}
 
-			synchronized (regionData) {
+			StampedLock lock = getRegionLock(regionCoord.key());
+			long stamp = lock.writeLock();
+			try {
+				RegionData.GroupTimes times = regionData.editTimes();
 				for (int groupId : groups) {
-					GroupData groupData = regionData.get(groupId);
-					groupData.activity = activity;
+					times.setActivity(groupId, activity.getEpochSecond());
 
 					if (updateEntry) {
-						groupData.entry = activity;
+						times.setEntry(groupId, activity.getEpochSecond());
 					}
 				}
+				regionData.publishTimes(times);
+			} finally {
+				lock.unlockWrite(stamp);
 			}
 		}
 
@@ -229,8 +389,9 @@ public class ActivityMap {
 	}
 
 	private Map<RegionCoord, Set<Integer>> getUpdatedRegions() {
-		GroupManager groupManager = NameAPI.getGroupManager();
 		Map<RegionCoord, Set<Integer>> regions = null;
+		// players usually moved through several regions since the last save
+		Map<UUID, IntSet> bypassGroupsByPlayer = new HashMap<>();
 
 		PlayerUpdate playerUpdate;
 		while ((playerUpdate = playerUpdates.poll()) != null) {
@@ -240,18 +401,77 @@ public class ActivityMap {
 
 			Set<Integer> groups = regions.computeIfAbsent(playerUpdate.regionCoord(), a -> new HashSet<>());
 
-			List<String> groupNames = groupManager.getAllGroupNames(playerUpdate.playerId());
-			for (String groupName : groupNames) {
-				Group group = GroupManager.getGroup(groupName);
-				if (groupManager.hasAccess(group, playerUpdate.playerId(), CitadelPermissionHandler.getBypass())) {
-					groups.add(group.getGroupId());
-				}
+			IntSet bypassGroups = bypassGroupsByPlayer.get(playerUpdate.playerId());
+			if (bypassGroups == null) {
+				bypassGroups = getBypassGroups(playerUpdate.playerId());
+				bypassGroupsByPlayer.put(playerUpdate.playerId(), bypassGroups);
 			}
+			groups.addAll(bypassGroups);
 		}
 
 		return regions;
 	}
 
+	/**
+	 * Gets the ids of all groups the player is a member of and has the bypass permission on. Answered from the players
+	 * permission snapshot if there is one, otherwise from the bypass groups remembered for the player. Those are kept
+	 * until the player quits, NameLayer announces a group change or they get older than
+	 * {@link #BYPASS_GROUPS_MAX_AGE_MS}. NameLayer does not announce members being removed or rank permissions
+	 * changing, so every use also checks the player's current rank in each of the groups
+	 */
+	private IntSet getBypassGroups(UUID playerId) {
+		IntSet groupIds = new IntOpenHashSet();
+		PlayerPermissionSnapshots snapshots = Citadel.getInstance().getPermissionSnapshots();
+		if (snapshots != null
+				&& snapshots.collectGroupsWithAccess(playerId, CitadelPermissionHandler.getBypass(), groupIds)) {
+			return groupIds;
+		}
+
+		BypassGroups cached = bypassGroups.get(playerId);
+		if (cached != null && System.currentTimeMillis() - cached.created <= BYPASS_GROUPS_MAX_AGE_MS
+				&& isStillGrantedByRank(cached, playerId)) {
+			return cached.groupIds;
+		}
+
+		long created = System.currentTimeMillis();
+		List<Group> byRank = new ArrayList<>();
+		GroupManager groupManager = NameAPI.getGroupManager();
+		List<String> groupNames = groupManager.getAllGroupNames(playerId);
+		for (String groupName : groupNames) {
+			Group group = GroupManager.getGroup(groupName);
+			if (groupManager.hasAccess(group, playerId, CitadelPermissionHandler.getBypass())) {
+				groupIds.add(group.getGroupId());
+				if (PermissionDecisionCache.isGrantedByRank(group, playerId, CitadelPermissionHandler.getBypass())) {
+					byRank.add(group);
+				}
+			}
+		}
+		bypassGroupBuilds.incrementAndGet();
+		bypassGroups.put(playerId, new BypassGroups(groupIds, byRank, created));
+		return groupIds;
+	}
+
+	private static boolean isStillGrantedByRank(BypassGroups cached, UUID playerId) {
+		for (Group group : cached.byRank) {
+			if (!PermissionDecisionCache.isGrantedByRank(group, playerId, CitadelPermissionHandler.getBypass())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Drops the bypass groups remembered for all players, must be called whenever memberships or permissions of any
+	 * group may have changed
+	 */
+	public void invalidateBypassGroups() {
+		bypassGroups.clear();
+	}
+
+	public void playerQuit(UUID playerId) {
+		bypassGroups.remove(playerId);
+	}
+
 	private Map<RegionCoord, Set<Integer>> getExtendedRegions(Map<RegionCoord, Set<Integer>> regions) {
 		Map<RegionCoord, Set<Integer>> extendedRegions = new HashMap<>();
 
@@ -293,14 +513,12 @@ public class ActivityMap {
 			return false;
 		}
 
-		Instant enteredPoint = Instant.now().minusMillis(entryRefreshAfterMs);
+		long enteredPoint = Instant.now().minusMillis(entryRefreshAfterMs).getEpochSecond();
 
-		synchronized (regionData) {
-			for (int groupId : groups) {
-				Instant entry = regionData.get(groupId).entry;
-				if (entry == null || entry.compareTo(enteredPoint) < 0) {
-					return false;
-				}
+		for (int groupId : groups) {
+			long entry = regionData.getEntry(groupId);
+			if (entry == 0 || entry < enteredPoint) {
+				return false;
 			}
 		}
 
@@ -313,18 +531,36 @@ public class ActivityMap {
 			return false;
 		}
 
-		Instant activePoint = Instant.now().minusMillis(radiusRefreshAfterMs);
+		long activePoint = Instant.now().minusMillis(radiusRefreshAfterMs).getEpochSecond();
 
-		synchronized (regionData) {
+		if (!updateEntry) {
 			for (int groupId : groups) {
-				GroupData groupData = regionData.get(groupId);
-				if (groupData.activity == null || groupData.activity.compareTo(activePoint) < 0) {
+				long activity = regionData.getActivity(groupId);
+				if (activity == 0 || activity < activePoint) {
 					return false;
 				}
-				if (updateEntry) {
-					groupData.entry = Instant.now();
+			}
+			return true;
+		}
+
+		StampedLock lock = getRegionLock(regionCoord.key());
+		long stamp = lock.writeLock();
+		try {
+			RegionData.GroupTimes times = regionData.editTimes();
+			try {
+				for (int groupId : groups) {
+					long activity = times.getActivity(groupId);
+					if (activity == 0 || activity < activePoint) {
+						return false;
+					}
+					times.setEntry(groupId, Instant.now().getEpochSecond());
 				}
+			} finally {
+				// entries of the groups checked so far are refreshed even if a later one is not valid
+				regionData.publishTimes(times);
 			}
+		} finally {
+			lock.unlockWrite(stamp);
 		}
 
 		return true;
@@ -357,8 +593,12 @@ public class ActivityMap {
 				RegionCoord regionCoord = getRegionCoordByChunk(chunkCoord);
 				RegionData regionData = getRegion(regionCoord, true);
 
-				synchronized (regionData) {
-					regionData.addChunk(chunkCoord);
+				StampedLock lock = getRegionLock(regionCoord.key());
+				long stamp = lock.writeLock();
+				try {
+					regionData.addChunk(chunkCoord.x(), chunkCoord.z());
+				} finally {
+					lock.unlockWrite(stamp);
 				}
 			} catch (InterruptedException e) {
 				if(!disabled.get()) {
@@ -373,24 +613,86 @@ public class ActivityMap {
 	private void unloadChunkTask() {
 		ChunkCoord chunkCoord;
 		while ((chunkCoord = chunkUnloadQueue.poll()) != null) {
-			RegionCoord regionCoord = getRegionCoordByChunk(chunkCoord);
-			Map<XZKey, RegionData> worldData = data.get(regionCoord.worldId());
-			if (worldData == null) {
+			long regionKey = getRegionCoordByChunk(chunkCoord).key();
+			StampedLock lock = getRegionLock(regionKey);
+
+			RegionData regionData;
+			long stamp = dataLock.readLock();
+			try {
+				regionData = data.get(regionKey);
+			} finally {
+				dataLock.unlockRead(stamp);
+			}
+			if (regionData == null) {
 				continue;
 			}
 
-			XZKey regionKey = new XZKey(regionCoord.x(), regionCoord.z());
-			RegionData regionData = worldData.get(regionKey);
-			if (regionData == null) {
+			long regionStamp = lock.writeLock();
+			boolean empty;
+			try {
+				empty = regionData.removeChunk(chunkCoord.x(), chunkCoord.z());
+			} finally {
+				lock.unlockWrite(regionStamp);
+			}
+			if (!empty) {
 				continue;
 			}
 
-			synchronized (regionData) {
-				if (regionData.removeChunk(chunkCoord)) {
-					worldData.remove(regionKey);
+			removeIfChunkless(regionKey, regionData);
+		}
+
+		// regions which never had a chunk loaded, for example neighbours loaded for the activity radius, are not
+		// reached through chunk unloads
+		LongList chunklessKeys = new LongArrayList();
+		List<RegionData> chunklessRegions = new ArrayList<>();
+		long stamp = dataLock.readLock();
+		try {
+			ObjectIterator<Long2ObjectMap.Entry<RegionData>> iterator = data.long2ObjectEntrySet().fastIterator();
+			while (iterator.hasNext()) {
+				Long2ObjectMap.Entry<RegionData> entry = iterator.next();
+				// only a hint without the region lock, it is checked again before removing the region
+				if (entry.getValue().hasNoChunks()) {
+					chunklessKeys.add(entry.getLongKey());
+					chunklessRegions.add(entry.getValue());
+				}
+			}
+		} finally {
+			dataLock.unlockRead(stamp);
+		}
+		for (int i = 0; i < chunklessKeys.size(); i++) {
+			long regionKey = chunklessKeys.getLong(i);
+			RegionData regionData = chunklessRegions.get(i);
+			StampedLock lock = getRegionLock(regionKey);
+			long regionStamp = lock.writeLock();
+			boolean expired;
+			try {
+				expired = regionData.sweepChunkless();
+			} finally {
+				lock.unlockWrite(regionStamp);
+			}
+			if (expired) {
+				removeIfChunkless(regionKey, regionData);
+			}
+		}
+	}
+
+	private void removeIfChunkless(long regionKey, RegionData regionData) {
+		StampedLock lock = getRegionLock(regionKey);
+		// the map lock is always taken before a region lock, never the other way around
+		long stamp = dataLock.writeLock();
+		try {
+			long regionStamp = lock.writeLock();
+			try {
+				// a chunk of the region might have been loaded again in the meantime
+				if (data.get(regionKey) == regionData && regionData.hasNoChunks()) {
+					data.remove(regionKey);
 					unloadCount.incrementAndGet();
 				}
+			} finally {
+				lock.unlockWrite(regionStamp);
 			}
+		} finally {
+			dataLock.unlockWrite(stamp);
 		}
 	}
 
@@ -435,6 +737,12 @@ public class ActivityMap {
 		chunkUnloadQueue.add(chunkCoord);
 	}
 
+	/**
+	 * Gets the last activity of the group around the given location. This never blocks, if the region around the
+	 * location is not loaded yet its load is queued and the provisional value is returned, which is the same one used
+	 * for regions without any recorded activity: the group's own activity timestamp, capped at the configured default
+	 * activity.
+	 */
 	public Optional<Instant> getLastActivityTime(Group group, Location location) {
 		if (!isEnabled(location.getWorld())) {
 			return Optional.of(Instant.ofEpochMilli(group.getActivityTimeStamp()));
@@ -462,8 +770,10 @@ public class ActivityMap {
 		RegionCoord regionFrom = getRegionCoord(from);
 		RegionCoord regionTo = getRegionCoord(to);
 
-		if (!regionFrom.equals(regionTo))
+		if (!regionFrom.equals(regionTo)) {
 			playerUpdates.add(new PlayerUpdate(regionTo, player.getUniqueId()));
+			queuePrefetch(regionTo);
+		}
 	}
 
 	public void savePlayerActivity(Location location, Player player) {
@@ -480,37 +790,43 @@ public class ActivityMap {
 			return null;
 		}
 
-		int worlds = data.size();
+		ShortOpenHashSet worldIds = new ShortOpenHashSet();
 		int loadedRegions = 0;
 		int notLoadedRegions = 0;
-		Set<Integer> uniqueGroups = new HashSet<>();
+		IntSet uniqueGroups = new IntOpenHashSet();
 		int loadedActivities = 0;
 
-		for (Map<XZKey, RegionData> world : data.values()) {
-			for (RegionData regionData : world.values()) {
-				synchronized (regionData) {
-					if (regionData.isLoaded()) {
-						loadedRegions++;
-					} else {
-						notLoadedRegions++;
-					}
-
-					Set<Integer> groups = regionData.getGroups();
+		long stamp = dataLock.readLock();
+		try {
+			ObjectIterator<Long2ObjectMap.Entry<RegionData>> iterator = data.long2ObjectEntrySet().fastIterator();
+			while (iterator.hasNext()) {
+				Long2ObjectMap.Entry<RegionData> entry = iterator.next();
+				RegionData regionData = entry.getValue();
+				worldIds.add((short) (entry.getLongKey() >>> 48));
+				if (regionData.isLoaded()) {
+					loadedRegions++;
+				} else {
+					notLoadedRegions++;
+				}
 
-					uniqueGroups.addAll(regionData.getGroups());
+				regionData.collectGroups(uniqueGroups);
 
-					loadedActivities += groups.size();
-				}
+				loadedActivities += regionData.getGroupCount();
 			}
+		} finally {
+			dataLock.unlockRead(stamp);
 		}
 
 		var stat = new ActivityMapStat();
-		stat.worlds = worlds;
+		stat.worlds = worldIds.size();
 		stat.loadedRegions = loadedRegions;
 		stat.notLoadedRegions = notLoadedRegions;
 		stat.uniqueGroups = uniqueGroups.size();
 		stat.loadedActivities = loadedActivities;
 		stat.regionUnloadCount = unloadCount.get();
+		stat.provisionalLookups = provisionalLookups.get();
+		stat.bypassGroupPlayers = bypassGroups.size();
+		stat.bypassGroupBuilds = bypassGroupBuilds.get();
 
 		timePoll.getStat(stat);
 
@@ -11,4 +11,7 @@ public class ActivityMapStat {
 	public long regionLoadSumNano;
 	public long regionLoadMinTimeNano;
 	public long regionLoadMaxTimeNano;
+	public long provisionalLookups;
+	public int bypassGroupPlayers;
+	public long bypassGroupBuilds;
 }
@@ -1,8 +1,16 @@
 package vg.civcraft.mc.citadel.activity;
 
 record RegionCoord (short worldId, int x, int z) {
-	@Override
-	public int hashCode() {
-		return (int)worldId & 0xffff | (x << 8) | (z << 16);
+
+	/**
+	 * Packs world id and region coordinates into a single long. Region coordinates are block coordinates divided by
+	 * the resolution of at least 16, so 24 bits each cover the whole world
+	 */
+	static long toKey(short worldId, int x, int z) {
+		return ((long) worldId << 48) | ((long) (x & 0xFFFFFF) << 24) | (z & 0xFFFFFF);
+	}
+
+	long key() {
+		return toKey(worldId, x, z);
 	}
 }
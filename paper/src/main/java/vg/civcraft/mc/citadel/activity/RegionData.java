@@ -1,42 +1,218 @@
 package vg.civcraft.mc.citadel.activity;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Activity of all groups in a single region and which of its chunks are loaded.
+ * <p>
+ * Activity and entry times are stored as epoch seconds in parallel int arrays, read as unsigned so they last until
+ * 2106, with 0 meaning no time is known. A primitive map points from group id to the index in those arrays. Loaded
+ * chunks are one bit each in a bitmap covering the region.
+ * <p>
+ * Group times are copy on write: readers get the currently published {@link GroupTimes} without any locking, writers
+ * edit a copy and publish it. Writers and the chunk bitmap must be guarded by the region's lock in {@link ActivityMap}
+ */
 class RegionData {
-	private final Map<Integer, GroupData> data = new HashMap<>();
+
+	/**
+	 * Times of all groups in the region. Never modified once published through {@link #publishTimes(GroupTimes)}
+	 */
+	static final class GroupTimes {
+		private static final int INITIAL_CAPACITY = 4;
+
+		private final Int2IntOpenHashMap indices;
+		private int[] groupIds;
+		private int[] activities;
+		private int[] entries;
+		private int count;
+
+		private GroupTimes() {
+			this.indices = new Int2IntOpenHashMap(INITIAL_CAPACITY);
+			this.indices.defaultReturnValue(-1);
+			this.groupIds = new int[INITIAL_CAPACITY];
+			this.activities = new int[INITIAL_CAPACITY];
+			this.entries = new int[INITIAL_CAPACITY];
+		}
+
+		private GroupTimes(GroupTimes other) {
+			this.indices = new Int2IntOpenHashMap(other.indices);
+			this.indices.defaultReturnValue(-1);
+			this.groupIds = other.groupIds.clone();
+			this.activities = other.activities.clone();
+			this.entries = other.entries.clone();
+			this.count = other.count;
+		}
+
+		/**
+		 * @return Last activity of the group in epoch seconds or 0 if unknown
+		 */
+		long getActivity(int groupId) {
+			int index = indices.get(groupId);
+			return index < 0 ? 0 : Integer.toUnsignedLong(activities[index]);
+		}
+
+		void setActivity(int groupId, long epochSecond) {
+			// the index must be resolved first, since it may grow and replace the array
+			int index = getOrCreateIndex(groupId);
+			activities[index] = (int) epochSecond;
+		}
+
+		/**
+		 * @return Last time a member of the group entered this region in epoch seconds or 0 if unknown
+		 */
+		long getEntry(int groupId) {
+			int index = indices.get(groupId);
+			return index < 0 ? 0 : Integer.toUnsignedLong(entries[index]);
+		}
+
+		void setEntry(int groupId, long epochSecond) {
+			int index = getOrCreateIndex(groupId);
+			entries[index] = (int) epochSecond;
+		}
+
+		private int getOrCreateIndex(int groupId) {
+			int index = indices.get(groupId);
+			if (index >= 0) {
+				return index;
+			}
+			if (count == groupIds.length) {
+				int capacity = groupIds.length * 2;
+				groupIds = Arrays.copyOf(groupIds, capacity);
+				activities = Arrays.copyOf(activities, capacity);
+				entries = Arrays.copyOf(entries, capacity);
+			}
+			index = count++;
+			groupIds[index] = groupId;
+			indices.put(groupId, index);
+			return index;
+		}
+	}
+
+	private volatile GroupTimes times;
+
+	private final int chunksPerSide;
+	// allocated with the first loaded chunk
+	private long[] chunks;
+	private int chunkCount;
+	// whether the region had no loaded chunk at the last sweep of the unload task
+	private boolean chunklessAtLastSweep;
+
 	private final AtomicBoolean isLoaded = new AtomicBoolean();
-	private final Set<ChunkCoord> chunks = new HashSet<>();
+	private final AtomicBoolean isLoadStarted = new AtomicBoolean();
+
+	/**
+	 * @param chunksPerSide Width of the region in chunks
+	 */
+	public RegionData(int chunksPerSide) {
+		this.chunksPerSide = chunksPerSide;
+		this.times = new GroupTimes();
+	}
 
-	public void put(int groupId, GroupData groupData) {
-		data.put(groupId, groupData);
+	/**
+	 * @return Last activity of the group in epoch seconds or 0 if unknown. Never blocks
+	 */
+	public long getActivity(int groupId) {
+		return times.getActivity(groupId);
 	}
 
-	public GroupData get(int groupId) {
-		return data.computeIfAbsent(groupId, a -> new GroupData(null));
+	/**
+	 * @return Last time a member of the group entered this region in epoch seconds or 0 if unknown. Never blocks
+	 */
+	public long getEntry(int groupId) {
+		return times.getEntry(groupId);
 	}
 
-	public void addChunk(ChunkCoord chunkCoord) {
-		chunks.add(chunkCoord);
+	/**
+	 * @return Copy of the current group times to modify and publish afterwards, must only be called while holding the
+	 *         region's lock
+	 */
+	public GroupTimes editTimes() {
+		return new GroupTimes(times);
 	}
 
-	public boolean removeChunk(ChunkCoord chunkCoord) {
-		chunks.remove(chunkCoord);
-		return chunks.size() == 0;
+	public void publishTimes(GroupTimes edited) {
+		times = edited;
+	}
+
+	public void addChunk(int chunkX, int chunkZ) {
+		if (chunks == null) {
+			chunks = new long[(chunksPerSide * chunksPerSide + 63) >> 6];
+		}
+		int bit = getChunkBit(chunkX, chunkZ);
+		long mask = 1L << bit;
+		if ((chunks[bit >> 6] & mask) == 0) {
+			chunks[bit >> 6] |= mask;
+			chunkCount++;
+		}
+		chunklessAtLastSweep = false;
+	}
+
+	/**
+	 * @return True if no chunk of the region is loaded anymore
+	 */
+	public boolean removeChunk(int chunkX, int chunkZ) {
+		if (chunks != null) {
+			int bit = getChunkBit(chunkX, chunkZ);
+			long mask = 1L << bit;
+			if ((chunks[bit >> 6] & mask) != 0) {
+				chunks[bit >> 6] &= ~mask;
+				chunkCount--;
+			}
+		}
+		return chunkCount == 0;
+	}
+
+	public boolean hasNoChunks() {
+		return chunkCount == 0;
+	}
+
+	/**
+	 * Called by each sweep of the unload task, so regions created for lookups or prefetching without any of their
+	 * chunks being loaded are dropped eventually, while still giving their chunks a full sweep interval to load
+	 *
+	 * @return True if no chunk of the region was loaded since the previous sweep
+	 */
+	public boolean sweepChunkless() {
+		if (chunkCount != 0) {
+			chunklessAtLastSweep = false;
+			return false;
+		}
+		boolean expired = chunklessAtLastSweep;
+		chunklessAtLastSweep = true;
+		return expired;
+	}
+
+	private int getChunkBit(int chunkX, int chunkZ) {
+		return Math.floorMod(chunkZ, chunksPerSide) * chunksPerSide + Math.floorMod(chunkX, chunksPerSide);
 	}
 
 	public boolean isLoaded() {
 		return isLoaded.get();
 	}
 
+	/**
+	 * @return True if the caller is the first one to load this region and has to do so, false if the region is
+	 *         already loaded or being loaded
+	 */
+	public boolean startLoading() {
+		return isLoadStarted.compareAndSet(false, true);
+	}
+
 	public void setLoaded() {
 		isLoaded.set(true);
 	}
 
-	public Set<Integer> getGroups() {
-		return data.keySet();
+	public int getGroupCount() {
+		return times.count;
+	}
+
+	public void collectGroups(IntSet groups) {
+		GroupTimes current = times;
+		for (int i = 0; i < current.count; i++) {
+			groups.add(current.groupIds[i]);
+		}
 	}
 }
@@ -37,6 +37,9 @@ public class Activity extends BaseCommand {
 		sender.sendMessage("Min load time: " + nanoToMsStr(stat.regionLoadMinTimeNano));
 		sender.sendMessage("Max load time: " + nanoToMsStr(stat.regionLoadMaxTimeNano));
 		sender.sendMessage("Avg load time: " + nanoToMsStr(stat.regionLoadSumNano / stat.regionLoadCount));
+		sender.sendMessage("Lookups answered provisionally: " + longToStr(stat.provisionalLookups));
+		sender.sendMessage("Players with remembered bypass groups: " + longToStr(stat.bypassGroupPlayers)
+				+ ", built: " + longToStr(stat.bypassGroupBuilds));
 	}
 
 	private static String longToStr(long i) {
@@ -30,6 +30,7 @@ public class CitadelCommandManager extends CommandManager {
 		registerCommand(new Reinforce());
 		registerCommand(new ReinforcementsGUI());
 		registerCommand(new Reload());
+		registerCommand(new Storage());
 	}
 
 	@Override
@@ -0,0 +1,140 @@
+package vg.civcraft.mc.citadel.command;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Description;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.CommandSender;
+import vg.civcraft.mc.citadel.Citadel;
+import vg.civcraft.mc.citadel.ResponsibleBlockResolver;
+import vg.civcraft.mc.citadel.model.ChunkCacheStat;
+import vg.civcraft.mc.citadel.model.CitadelDAO;
+import vg.civcraft.mc.citadel.model.ColumnCacheStat;
+import vg.civcraft.mc.citadel.model.PermissionCacheStat;
+import vg.civcraft.mc.citadel.model.PermissionDecisionCache;
+import vg.civcraft.mc.citadel.model.PermissionSnapshotStat;
+import vg.civcraft.mc.citadel.model.PlayerPermissionSnapshots;
+import vg.civcraft.mc.citadel.model.TransferCacheStat;
+import vg.civcraft.mc.citadel.model.TransferDecisionCache;
+import vg.civcraft.mc.citadel.model.WriteBehindStat;
+
+public class Storage extends BaseCommand {
+
+	@CommandAlias("ctstorage")
+	@Description("Shows reinforcement storage and cache statistics")
+	@CommandPermission("citadel.admin")
+	public void execute(CommandSender sender) {
+		CitadelDAO dao = Citadel.getInstance().getDAO();
+		int indexedChunks = dao.getIndexedChunkCount();
+		if (indexedChunks >= 0) {
+			sender.sendMessage(Component.text("[Citadel] populated chunk index:").color(NamedTextColor.YELLOW));
+			sender.sendMessage("Chunks with reinforcements: " + longToStr(indexedChunks));
+			sender.sendMessage("Chunk loads skipped: " + longToStr(dao.getSkippedChunkLoads()));
+		}
+
+		ChunkCacheStat cacheStat = dao.getChunkCacheStat();
+		if (cacheStat != null) {
+			long loads = cacheStat.hits + cacheStat.misses;
+			sender.sendMessage(Component.text("[Citadel] chunk cache:").color(NamedTextColor.YELLOW));
+			sender.sendMessage("Cached chunks: " + longToStr(cacheStat.chunks));
+			sender.sendMessage("Size: " + longToStr(cacheStat.sizeBytes / 1024) + " / "
+					+ longToStr(cacheStat.maxSizeBytes / 1024) + " KiB");
+			sender.sendMessage("Hits: " + longToStr(cacheStat.hits) + ", misses: " + longToStr(cacheStat.misses));
+			sender.sendMessage("Hit rate: " + String.format("%.1f%%", loads == 0 ? 0.0 : cacheStat.hits * 100.0 / loads));
+			sender.sendMessage("Evictions: " + longToStr(cacheStat.evictions));
+			sender.sendMessage("Invalidations: " + longToStr(cacheStat.invalidations));
+			sender.sendMessage("Prefetched chunks: " + longToStr(cacheStat.prefetched));
+		}
+
+		ColumnCacheStat columnStat = ResponsibleBlockResolver.getColumnCacheStat();
+		if (columnStat != null) {
+			long lookups = columnStat.hits + columnStat.misses;
+			sender.sendMessage(Component.text("[Citadel] column anchor cache:").color(NamedTextColor.YELLOW));
+			sender.sendMessage("Cached columns: " + longToStr(columnStat.columns) + " in "
+					+ longToStr(columnStat.chunks) + " chunks");
+			sender.sendMessage("Hits: " + longToStr(columnStat.hits) + ", misses: " + longToStr(columnStat.misses));
+			sender.sendMessage("Hit rate: " + String.format("%.1f%%", lookups == 0 ? 0.0 : columnStat.hits * 100.0 / lookups));
+			sender.sendMessage("Invalidations: " + longToStr(columnStat.invalidations));
+			StringBuilder lengths = new StringBuilder("Scan lengths:");
+			for (int i = 0; i < columnStat.scanLengths.length; i++) {
+				lengths.append(' ').append(1 << i);
+				lengths.append(i == columnStat.scanLengths.length - 1 ? "+" : "-" + ((2 << i) - 1));
+				lengths.append(": ").append(longToStr(columnStat.scanLengths[i]));
+			}
+			sender.sendMessage(lengths.toString());
+		}
+
+		PermissionDecisionCache permissionCache = Citadel.getInstance().getPermissionCache();
+		if (permissionCache != null) {
+			PermissionCacheStat permissionStat = permissionCache.getStat();
+			long checks = permissionStat.hits + permissionStat.misses;
+			sender.sendMessage(Component.text("[Citadel] permission cache:").color(NamedTextColor.YELLOW));
+			sender.sendMessage("Cached decisions: " + longToStr(permissionStat.size) + " / "
+					+ longToStr(permissionStat.maxSize));
+			sender.sendMessage("Hits: " + longToStr(permissionStat.hits) + ", misses: " + longToStr(permissionStat.misses));
+			sender.sendMessage("Hit rate: " + String.format("%.1f%%", checks == 0 ? 0.0 : permissionStat.hits * 100.0 / checks));
+			sender.sendMessage("Evictions: " + longToStr(permissionStat.evictions) + ", expirations: "
+					+ longToStr(permissionStat.expirations));
+			sender.sendMessage("Invalidations: " + longToStr(permissionStat.invalidations)
+					+ ", rejected by rank check: " + longToStr(permissionStat.rejected));
+		}
+
+		PlayerPermissionSnapshots snapshots = Citadel.getInstance().getPermissionSnapshots();
+		if (snapshots != null) {
+			PermissionSnapshotStat snapshotStat = snapshots.getStat();
+			long checks = snapshotStat.answered + snapshotStat.fallbacks;
+			sender.sendMessage(Component.text("[Citadel] permission snapshots:").color(NamedTextColor.YELLOW));
+			sender.sendMessage("Players with snapshots: " + longToStr(snapshotStat.snapshots));
+			sender.sendMessage("Answered: " + longToStr(snapshotStat.answered) + ", left to NameLayer: "
+					+ longToStr(snapshotStat.fallbacks));
+			sender.sendMessage("Answer rate: " + String.format("%.1f%%", checks == 0 ? 0.0 : snapshotStat.answered * 100.0 / checks));
+			sender.sendMessage("Builds: " + longToStr(snapshotStat.builds) + ", invalidations: "
+					+ longToStr(snapshotStat.invalidations) + ", rejected by rank check: "
+					+ longToStr(snapshotStat.rejected));
+		}
+
+		TransferDecisionCache transferCache = Citadel.getInstance().getTransferCache();
+		if (transferCache != null) {
+			TransferCacheStat transferStat = transferCache.getStat();
+			long transfers = transferStat.hits + transferStat.misses;
+			sender.sendMessage(Component.text("[Citadel] hopper cache:").color(NamedTextColor.YELLOW));
+			sender.sendMessage("Cached decisions: " + longToStr(transferStat.size) + " / "
+					+ longToStr(transferStat.maxSize) + ", tracked chunks: " + longToStr(transferStat.trackedChunks));
+			sender.sendMessage("Hits: " + longToStr(transferStat.hits) + ", misses: " + longToStr(transferStat.misses));
+			sender.sendMessage("Hit rate: " + String.format("%.1f%%", transfers == 0 ? 0.0 : transferStat.hits * 100.0 / transfers));
+			sender.sendMessage("Outdated: " + longToStr(transferStat.staleEntries) + ", evictions: "
+					+ longToStr(transferStat.evictions));
+		}
+
+		WriteBehindStat stat = dao.getWriteBehindStat();
+		if (stat == null) {
+			sender.sendMessage(Component.text("Write behind is disabled").color(NamedTextColor.RED));
+			return;
+		}
+
+		sender.sendMessage(Component.text("[Citadel] write behind statistics:").color(NamedTextColor.YELLOW));
+		sender.sendMessage("Queued changes: " + longToStr(stat.queueDepth));
+		sender.sendMessage("Chunks with queued changes: " + longToStr(stat.pendingChunks));
+		sender.sendMessage("Changes merged into a queued change: " + longToStr(stat.coalescedWrites));
+		sender.sendMessage("Flushes: " + longToStr(stat.flushCount));
+		sender.sendMessage("Failed flushes: " + longToStr(stat.failedFlushCount));
+		sender.sendMessage("Rows flushed: " + longToStr(stat.rowsFlushed));
+		sender.sendMessage("Rows in last flush: " + longToStr(stat.lastFlushRows));
+		sender.sendMessage("Max rows per flush: " + longToStr(stat.maxFlushRows));
+		sender.sendMessage("Avg rows per flush: " + longToStr(stat.flushCount == 0 ? 0 : stat.rowsFlushed / stat.flushCount));
+		sender.sendMessage("Last flush time: " + nanoToMsStr(stat.lastFlushTimeNano));
+		sender.sendMessage("Max flush time: " + nanoToMsStr(stat.flushMaxTimeNano));
+		sender.sendMessage("Avg flush time: " + nanoToMsStr(stat.flushCount == 0 ? 0 : stat.flushSumNano / stat.flushCount));
+	}
+
+	private static String longToStr(long i) {
+		return String.format("%,d", i);
+	}
+
+	private static String nanoToMsStr(long nano) {
+		double ms = (double)Math.round(nano / 10000L) / 100.0;
+		return String.format("%,.2f ms", ms);
+	}
+}
@@ -0,0 +1,38 @@
+package vg.civcraft.mc.citadel.interact;
+
+import org.bukkit.Material;
+import org.bukkit.block.data.Lightable;
+import org.bukkit.inventory.ItemStack;
+import vg.civcraft.mc.citadel.CitadelPermissionHandler;
+import vg.civcraft.mc.citadel.model.Reinforcement;
+
+/**
+ * Prevents lighting or putting out reinforced candles without the permission to modify blocks
+ */
+public class CandleRule implements InteractRule {
+
+	private static final String MESSAGE = "You do not have permission to modify this block";
+
+	@Override
+	public void apply(InteractContext context) {
+		if (!context.getEvent().hasItem()) {
+			Lightable candles = (Lightable) context.getBlock().getBlockData();
+			if (candles.isLit() && !isAllowed(context)) {
+				context.deny(MESSAGE);
+				return;
+			}
+		}
+		ItemStack item = context.getItem();
+		if (item == null || item.getType() != Material.FLINT_AND_STEEL) {
+			return;
+		}
+		if (!isAllowed(context)) {
+			context.deny(MESSAGE);
+		}
+	}
+
+	private static boolean isAllowed(InteractContext context) {
+		Reinforcement rein = context.getReinforcement();
+		return rein == null || context.hasPermission(rein, CitadelPermissionHandler.getModifyBlocks());
+	}
+}
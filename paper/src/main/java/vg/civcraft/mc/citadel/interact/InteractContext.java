@@ -0,0 +1,147 @@
+package vg.civcraft.mc.citadel.interact;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import vg.civcraft.mc.citadel.Citadel;
+import vg.civcraft.mc.citadel.CitadelUtility;
+import vg.civcraft.mc.citadel.ReinforcementLogic;
+import vg.civcraft.mc.citadel.ResponsibleBlockResolver;
+import vg.civcraft.mc.citadel.model.Reinforcement;
+import vg.civcraft.mc.namelayer.permission.PermissionType;
+
+/**
+ * Everything rules may need to know about a single right click on a block. Reinforcements, the held item and
+ * permission checks are looked up at most once per event, no matter how many rules ask for them
+ */
+public class InteractContext {
+
+	private static final int MAX_PERMISSIONS = 4;
+
+	private final PlayerInteractEvent event;
+	private final Block block;
+	private final Material type;
+	private boolean reinforcementResolved;
+	private Reinforcement reinforcement;
+	private boolean protectingResolved;
+	private Reinforcement protecting;
+	private boolean itemResolved;
+	private ItemStack item;
+	private final Reinforcement[] checkedReinforcements;
+	private final PermissionType[] checkedPermissions;
+	private final boolean[] permissionResults;
+	private int checkedCount;
+
+	public InteractContext(PlayerInteractEvent event, Block block, Material type) {
+		this.event = event;
+		this.block = block;
+		this.type = type;
+		this.checkedReinforcements = new Reinforcement[MAX_PERMISSIONS];
+		this.checkedPermissions = new PermissionType[MAX_PERMISSIONS];
+		this.permissionResults = new boolean[MAX_PERMISSIONS];
+	}
+
+	public PlayerInteractEvent getEvent() {
+		return event;
+	}
+
+	public Player getPlayer() {
+		return event.getPlayer();
+	}
+
+	public Block getBlock() {
+		return block;
+	}
+
+	public Material getType() {
+		return type;
+	}
+
+	/**
+	 * @return Reinforcement of the clicked block itself, may be null
+	 */
+	public Reinforcement getReinforcement() {
+		if (!reinforcementResolved) {
+			reinforcement = Citadel.getInstance().getReinforcementManager().getReinforcement(block);
+			reinforcementResolved = true;
+		}
+		return reinforcement;
+	}
+
+	/**
+	 * @return Reinforcement protecting the clicked block, see
+	 * {@link ReinforcementLogic#getReinforcementProtecting(Block)}, may be null
+	 */
+	public Reinforcement getProtectingReinforcement() {
+		if (!protectingResolved) {
+			if (ResponsibleBlockResolver.getStrategy(type) == ResponsibleBlockResolver.Strategy.SELF) {
+				protecting = getReinforcement();
+			} else {
+				protecting = ReinforcementLogic.getReinforcementProtecting(block);
+			}
+			protectingResolved = true;
+		}
+		return protecting;
+	}
+
+	/**
+	 * @return Item in the hand used for the interaction or null if it was not done with a hand
+	 */
+	public ItemStack getItem() {
+		if (!itemResolved) {
+			EquipmentSlot hand = event.getHand();
+			if (hand == EquipmentSlot.HAND) {
+				item = getPlayer().getInventory().getItemInMainHand();
+			} else if (hand == EquipmentSlot.OFF_HAND) {
+				item = getPlayer().getInventory().getItemInOffHand();
+			}
+			itemResolved = true;
+		}
+		return item;
+	}
+
+	/**
+	 * Checks whether the player has the given permission on the given reinforcement, remembering the outcome for the
+	 * rest of the event
+	 */
+	public boolean hasPermission(Reinforcement rein, PermissionType permission) {
+		for (int i = 0; i < checkedCount; i++) {
+			if (checkedReinforcements[i] == rein && checkedPermissions[i] == permission) {
+				return permissionResults[i];
+			}
+		}
+		boolean result = rein.hasPermission(getPlayer(), permission);
+		if (checkedCount < MAX_PERMISSIONS) {
+			checkedReinforcements[checkedCount] = rein;
+			checkedPermissions[checkedCount] = permission;
+			permissionResults[checkedCount] = result;
+			checkedCount++;
+		}
+		return result;
+	}
+
+	/**
+	 * Cancels the interaction and tells the player why
+	 */
+	public void deny(String message) {
+		event.setCancelled(true);
+		getPlayer().sendMessage(ChatColor.RED + message);
+	}
+
+	/**
+	 * Cancels the interaction and tells the player why, logging the message if configured
+	 */
+	public void denyAndLog(String message) {
+		event.setCancelled(true);
+		CitadelUtility.sendAndLog(getPlayer(), ChatColor.RED, message, block.getLocation());
+	}
+
+	public boolean isCancelled() {
+		return event.useInteractedBlock() == Event.Result.DENY;
+	}
+}
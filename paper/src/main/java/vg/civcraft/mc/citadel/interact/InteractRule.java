@@ -0,0 +1,22 @@
+package vg.civcraft.mc.citadel.interact;
+
+/**
+ * Restriction on right clicking blocks of specific materials, dispatched by
+ * {@link vg.civcraft.mc.citadel.listener.InteractListener}
+ */
+public interface InteractRule {
+
+	/**
+	 * Checks the interaction and cancels it if it is not allowed
+	 *
+	 * @param context Interaction to check
+	 */
+	void apply(InteractContext context);
+
+	/**
+	 * @return Whether the rule also applies to interactions which were already cancelled
+	 */
+	default boolean appliesToCancelled() {
+		return false;
+	}
+}
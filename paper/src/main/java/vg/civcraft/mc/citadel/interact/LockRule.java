@@ -0,0 +1,36 @@
+package vg.civcraft.mc.citadel.interact;
+
+import org.bukkit.ChatColor;
+import vg.civcraft.mc.citadel.model.Reinforcement;
+import vg.civcraft.mc.namelayer.permission.PermissionType;
+
+/**
+ * Prevents opening reinforced blocks like containers, doors or beacons without the given permission
+ */
+public class LockRule implements InteractRule {
+
+	private final PermissionType permission;
+	private final boolean appliesToCancelled;
+
+	public LockRule(PermissionType permission, boolean appliesToCancelled) {
+		this.permission = permission;
+		this.appliesToCancelled = appliesToCancelled;
+	}
+
+	@Override
+	public void apply(InteractContext context) {
+		Reinforcement rein = context.getProtectingReinforcement();
+		if (rein == null) {
+			return;
+		}
+		if (!context.hasPermission(rein, permission)) {
+			context.denyAndLog(String.format("%s is locked with %s%s", context.getType().name(), ChatColor.AQUA,
+					rein.getType().getName()));
+		}
+	}
+
+	@Override
+	public boolean appliesToCancelled() {
+		return appliesToCancelled;
+	}
+}
@@ -0,0 +1,38 @@
+package vg.civcraft.mc.citadel.interact;
+
+import java.util.function.Predicate;
+import org.bukkit.block.Block;
+import vg.civcraft.mc.citadel.CitadelPermissionHandler;
+import vg.civcraft.mc.citadel.model.Reinforcement;
+
+/**
+ * Prevents using secure reinforced utility blocks like lecterns or anvils without the permission to open containers.
+ * These are always single blocks, so only the reinforcement of the clicked block itself is relevant
+ */
+public class SharedBlockRule implements InteractRule {
+
+	private final Predicate<Block> applies;
+	private final String message;
+
+	/**
+	 * @param applies Additional condition on the clicked block for the rule to apply
+	 * @param message Message sent to players who are not allowed to use the block
+	 */
+	public SharedBlockRule(Predicate<Block> applies, String message) {
+		this.applies = applies;
+		this.message = message;
+	}
+
+	@Override
+	public void apply(InteractContext context) {
+		if (!applies.test(context.getBlock())) {
+			return;
+		}
+		Reinforcement rein = context.getReinforcement();
+		if (rein == null || rein.isInsecure()
+				|| context.hasPermission(rein, CitadelPermissionHandler.getChests())) {
+			return;
+		}
+		context.denyAndLog(message);
+	}
+}
@@ -0,0 +1,41 @@
+package vg.civcraft.mc.citadel.interact;
+
+import java.util.function.Predicate;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import vg.civcraft.mc.citadel.CitadelPermissionHandler;
+import vg.civcraft.mc.citadel.model.Reinforcement;
+
+/**
+ * Prevents modifying reinforced blocks with tools, like stripping logs or tilling dirt, without the permission to
+ * modify blocks
+ */
+public class ToolModificationRule implements InteractRule {
+
+	private final Predicate<Material> tools;
+	private final String message;
+
+	/**
+	 * @param tools   Tools which modify the block
+	 * @param message Message sent to players who are not allowed to modify the block
+	 */
+	public ToolModificationRule(Predicate<Material> tools, String message) {
+		this.tools = tools;
+		this.message = message;
+	}
+
+	@Override
+	public void apply(InteractContext context) {
+		ItemStack item = context.getItem();
+		if (item == null || !tools.test(item.getType())) {
+			return;
+		}
+		Reinforcement rein = context.getReinforcement();
+		if (rein == null) {
+			return;
+		}
+		if (!context.hasPermission(rein, CitadelPermissionHandler.getModifyBlocks())) {
+			context.deny(message);
+		}
+	}
+}
@@ -6,6 +6,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.event.world.ChunkUnloadEvent;
 import vg.civcraft.mc.citadel.activity.ActivityMap;
@@ -36,6 +37,11 @@ public class ActivityListener implements Listener {
 		map.savePlayerActivity(location, event.getPlayer());
 	}
 
+	@EventHandler
+	public void onPlayerQuit(PlayerQuitEvent event) {
+		map.playerQuit(event.getPlayer().getUniqueId());
+	}
+
 	@EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
 	public void onChunkLoad(ChunkLoadEvent e) {
 		map.loadChunk(e.getChunk());
@@ -1,20 +1,13 @@
 package vg.civcraft.mc.citadel.listener;
 
-import com.destroystokyo.paper.MaterialTags;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.Tag;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
-import org.bukkit.block.Container;
-import org.bukkit.block.data.Lightable;
-import org.bukkit.block.data.Openable;
-import org.bukkit.block.data.type.Comparator;
 import org.bukkit.block.data.type.Dispenser;
-import org.bukkit.block.data.type.Lectern;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Cancellable;
@@ -34,17 +27,13 @@ import org.bukkit.event.player.PlayerHarvestBlockEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerTakeLecternBookEvent;
 import org.bukkit.event.world.StructureGrowEvent;
-import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 import vg.civcraft.mc.citadel.Citadel;
 import vg.civcraft.mc.citadel.CitadelPermissionHandler;
 import vg.civcraft.mc.citadel.CitadelUtility;
 import vg.civcraft.mc.citadel.ReinforcementLogic;
 import vg.civcraft.mc.citadel.model.Reinforcement;
-import vg.civcraft.mc.civmodcore.inventory.items.MaterialUtils;
-import vg.civcraft.mc.civmodcore.inventory.items.MoreTags;
 import vg.civcraft.mc.civmodcore.utilities.DoubleInteractFixer;
-import vg.civcraft.mc.civmodcore.world.WorldUtils;
 import vg.civcraft.mc.namelayer.group.Group;
 
 import java.util.HashMap;
@@ -72,22 +61,6 @@ public class BlockListener implements Listener {
 		Citadel.getInstance().getStateManager().getState(event.getPlayer()).handleBlockPlace(event);
 	}
 
-	@EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-	public void plantExploitFix(BlockPlaceEvent event) {
-		Block placed = event.getBlockPlaced();
-		Block placedAgainst = event.getBlockAgainst();
-
-		Reinforcement reinforcement = ReinforcementLogic.getReinforcementProtecting(placed);
-		if (reinforcement == null) {
-			return;
-		}
-		if (reinforcement.hasPermission(event.getPlayer(), CitadelPermissionHandler.getCrops())) {
-			return;
-		}
-		event.setCancelled(true);
-		event.getPlayer().sendMessage(Component.text("You cannot place this without the permission " + CitadelPermissionHandler.getCrops().getName() + " on it's group!", NamedTextColor.RED));
-	}
-
 	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
 	public void blockBurn(BlockBurnEvent bbe) {
 		Reinforcement reinforcement = ReinforcementLogic.getReinforcementProtecting(bbe.getBlock());
@@ -132,35 +105,6 @@ public class BlockListener implements Listener {
 		}
 	}
 
-	// Stop comparators from being placed unless the reinforcement is insecure
-	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
-	public void comparatorPlaceCheck(BlockPlaceEvent event) {
-		// We only care if they are placing a comparator
-		if (event.getBlockPlaced().getType() != Material.COMPARATOR) {
-			return;
-		}
-		Comparator comparator = (Comparator) event.getBlockPlaced().getBlockData();
-		Block block = event.getBlockPlaced().getRelative(comparator.getFacing().getOppositeFace());
-		// Check if the comparator is placed against something with an inventory
-		if (ReinforcementLogic.isPreventingBlockAccess(event.getPlayer(), block)) {
-			event.setCancelled(true);
-			CitadelUtility.sendAndLog(event.getPlayer(), ChatColor.RED,
-					"You can not place this because it'd allow bypassing a nearby reinforcement",
-					block.getLocation());
-			return;
-		}
-		// Comparators can also read through a single opaque block
-		if (block.getType().isOccluding()) {
-			if (ReinforcementLogic.isPreventingBlockAccess(event.getPlayer(),
-					block.getRelative(comparator.getFacing().getOppositeFace()))) {
-				event.setCancelled(true);
-				CitadelUtility.sendAndLog(event.getPlayer(), ChatColor.RED,
-						"You can not place this because it'd allow bypassing a nearby reinforcement",
-						block.getLocation());
-			}
-		}
-	}
-
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
 	public void interact(PlayerInteractEvent pie) {
 		if (pie.getAction() == Action.RIGHT_CLICK_BLOCK) {
@@ -209,103 +153,6 @@ public class BlockListener implements Listener {
 		}
 	}
 
-	// prevent opening reinforced things
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	public void openContainer(PlayerInteractEvent e) {
-		if (!e.hasBlock()) {
-			return;
-		}
-		if (e.getAction() != Action.RIGHT_CLICK_BLOCK) {
-			return;
-		}
-		Reinforcement rein = ReinforcementLogic.getReinforcementProtecting(e.getClickedBlock());
-		if (rein == null) {
-			return;
-		}
-		if (e.getClickedBlock().getState() instanceof Container) {
-			if (!rein.hasPermission(e.getPlayer(), CitadelPermissionHandler.getChests())) {
-				e.setCancelled(true);
-				String msg = String.format("%s is locked with %s%s", e.getClickedBlock().getType().name(),
-						ChatColor.AQUA, rein.getType().getName());
-				CitadelUtility.sendAndLog(e.getPlayer(), ChatColor.RED, msg, e.getClickedBlock().getLocation());
-			}
-			return;
-		}
-		if (e.getClickedBlock().getBlockData() instanceof Openable) {
-			if (!rein.hasPermission(e.getPlayer(), CitadelPermissionHandler.getDoors())) {
-				e.setCancelled(true);
-				String msg = String.format("%s is locked with %s%s", e.getClickedBlock().getType().name(),
-						ChatColor.AQUA, rein.getType().getName());
-				CitadelUtility.sendAndLog(e.getPlayer(), ChatColor.RED, msg, e.getClickedBlock().getLocation());
-			}
-		}
-	}
-
-	// prevent players from upgrading a chest into a double chest to bypass the
-	// single chests reinforcement
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	public void preventBypassChestAccess(BlockPlaceEvent e) {
-		Material mat = e.getBlock().getType();
-		if (mat != Material.CHEST && mat != Material.TRAPPED_CHEST) {
-			return;
-		}
-		for (Block rel : WorldUtils.getPlanarBlockSides(e.getBlock(), true)) {
-			if (rel.getType() == mat && ReinforcementLogic.isPreventingBlockAccess(e.getPlayer(), rel)) {
-				e.setCancelled(true);
-				CitadelUtility.sendAndLog(e.getPlayer(), ChatColor.RED,
-						"You can not place this because it'd allow bypassing a nearby reinforcement", rel.getLocation());
-				break;
-			}
-		}
-	}
-
-	@EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
-	public void removeReinforcedAir(BlockPlaceEvent e) {
-		if (!MaterialUtils.isAir(e.getBlockReplacedState().getType())) {
-			return;
-		}
-		Reinforcement rein = Citadel.getInstance().getReinforcementManager().getReinforcement(e.getBlock());
-		if (rein != null) {
-			rein.setHealth(-1);
-		}
-	}
-
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	public void preventStrippingLogs(PlayerInteractEvent pie) {
-		if (!pie.hasBlock()) {
-			return;
-		}
-		if (pie.getAction() != Action.RIGHT_CLICK_BLOCK) {
-			return;
-		}
-		Block block = pie.getClickedBlock();
-		if (!MoreTags.LOGS.isTagged(block.getType())) {
-			return;
-		}
-		EquipmentSlot hand = pie.getHand();
-		if (hand != EquipmentSlot.HAND && hand != EquipmentSlot.OFF_HAND) {
-			return;
-		}
-		ItemStack relevant;
-		Player p = pie.getPlayer();
-		if (hand == EquipmentSlot.HAND) {
-			relevant = p.getInventory().getItemInMainHand();
-		} else {
-			relevant = p.getInventory().getItemInOffHand();
-		}
-		if (!MaterialTags.AXES.isTagged(relevant.getType())) {
-			return;
-		}
-		Reinforcement rein = Citadel.getInstance().getReinforcementManager().getReinforcement(block);
-		if (rein == null) {
-			return;
-		}
-		if (!rein.hasPermission(p, CitadelPermissionHandler.getModifyBlocks())) {
-			p.sendMessage(ChatColor.RED + "You do not have permission to modify this block");
-			pie.setCancelled(true);
-		}
-	}
-
 	@EventHandler(priority = EventPriority.NORMAL)
 	public void rightClickCaveVines(PlayerHarvestBlockEvent event) {
 		Block harvestedBlock = event.getHarvestedBlock();
@@ -319,233 +166,10 @@ public class BlockListener implements Listener {
 		}
 	}
 
-	/*
-	For some stupid reason, Waxing / Stripping copper blocks calls a BlockPlaceEvent instead of PlayerInteractEvent,
-	this obviously might change in future so heres a warning note
-	Reminder: This is retarded
-	 */
-	@EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-	public void preventWaxingCopper(BlockPlaceEvent event) {
-		if (!MoreTags.COPPER_BLOCKS.isTagged(event.getBlockPlaced().getType())) {
-			return;
-		}
-		Reinforcement reinforcement = Citadel.getInstance().getReinforcementManager().getReinforcement(event.getBlockPlaced());
-		if (reinforcement == null) {
-			return;
-		}
-		Player player = event.getPlayer();
-		if (!reinforcement.hasPermission(player, CitadelPermissionHandler.getModifyBlocks())) {
-			player.sendMessage(ChatColor.RED + "You do not have permission to modify this block");
-			event.setCancelled(true);
-		}
-	}
-
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	public void preventTilingGrass(PlayerInteractEvent pie) {
-		if (!pie.hasBlock()) {
-			return;
-		}
-		if (pie.getAction() != Action.RIGHT_CLICK_BLOCK) {
-			return;
-		}
-		Block block = pie.getClickedBlock();
-		if (block.getType() != Material.GRASS_BLOCK) {
-			return;
-		}
-		EquipmentSlot hand = pie.getHand();
-		if (hand != EquipmentSlot.HAND && hand != EquipmentSlot.OFF_HAND) {
-			return;
-		}
-		ItemStack relevant;
-		Player p = pie.getPlayer();
-		if (hand == EquipmentSlot.HAND) {
-			relevant = p.getInventory().getItemInMainHand();
-		} else {
-			relevant = p.getInventory().getItemInOffHand();
-		}
-		if (!MaterialTags.SHOVELS.isTagged(relevant.getType())) {
-			return;
-		}
-		Reinforcement rein = Citadel.getInstance().getReinforcementManager().getReinforcement(block);
-		if (rein == null) {
-			return;
-		}
-		if (!rein.hasPermission(p, CitadelPermissionHandler.getModifyBlocks())) {
-			p.sendMessage(ChatColor.RED + "You do not have permission to modify this block");
-			pie.setCancelled(true);
-		}
-	}
-
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	public void preventTillingDirtIntoFarmland(PlayerInteractEvent pie) {
-		if (!pie.hasBlock()) {
-			return;
-		}
-		if (pie.getAction() != Action.RIGHT_CLICK_BLOCK) {
-			return;
-		}
-		Block block = pie.getClickedBlock();
-		Material type = block.getType();
-		if (type != Material.GRASS_BLOCK && type != Material.DIRT && type != Material.COARSE_DIRT
-				&& type != Material.DIRT_PATH) {
-			return;
-		}
-		EquipmentSlot hand = pie.getHand();
-		if (hand != EquipmentSlot.HAND && hand != EquipmentSlot.OFF_HAND) {
-			return;
-		}
-		ItemStack relevant;
-		Player p = pie.getPlayer();
-		if (hand == EquipmentSlot.HAND) {
-			relevant = p.getInventory().getItemInMainHand();
-		} else {
-			relevant = p.getInventory().getItemInOffHand();
-		}
-		if (!MaterialTags.HOES.isTagged(relevant.getType())) {
-			return;
-		}
-		Reinforcement rein = Citadel.getInstance().getReinforcementManager().getReinforcement(block);
-		if (rein == null) {
-			return;
-		}
-		if (!rein.hasPermission(p, CitadelPermissionHandler.getModifyBlocks())) {
-			p.sendMessage(ChatColor.RED + "You do not have permission to modify this block");
-			pie.setCancelled(true);
-		}
-	}
-
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	public void preventHarvestingHoney(PlayerInteractEvent pie) {
-		if (!pie.hasBlock()) {
-			return;
-		}
-		if (pie.getAction() != Action.RIGHT_CLICK_BLOCK) {
-			return;
-		}
-		Block block = pie.getClickedBlock();
-		Material type = block.getType();
-		if (type != Material.BEE_NEST && type != Material.BEEHIVE) {
-			return;
-		}
-		EquipmentSlot hand = pie.getHand();
-		if (hand != EquipmentSlot.HAND && hand != EquipmentSlot.OFF_HAND) {
-			return;
-		}
-		ItemStack relevant;
-		Player p = pie.getPlayer();
-		if (hand == EquipmentSlot.HAND) {
-			relevant = p.getInventory().getItemInMainHand();
-		} else {
-			relevant = p.getInventory().getItemInOffHand();
-		}
-		if (relevant.getType() != Material.SHEARS && relevant.getType() != Material.GLASS_BOTTLE) {
-			return;
-		}
-		Reinforcement rein = Citadel.getInstance().getReinforcementManager().getReinforcement(block);
-		if (rein == null) {
-			return;
-		}
-		if (!rein.hasPermission(p, CitadelPermissionHandler.getModifyBlocks())) {
-			p.sendMessage(ChatColor.RED + "You do not have permission to harvest this block");
-			pie.setCancelled(true);
-		}
-	}
-
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	public void preventLightingCandles(PlayerInteractEvent pie) {
-		if (!pie.hasBlock()) {
-			return;
-		}
-		if (pie.getAction() != Action.RIGHT_CLICK_BLOCK) {
-			return;
-		}
-		Block block = pie.getClickedBlock();
-		Material type = block.getType();
-		if (!MoreTags.LIGHTABLE_CANDLES.isTagged(type)) {
-			return;
-		}
-		if (!pie.hasItem()) {
-			Lightable candles = (Lightable) block.getBlockData();
-			if (candles.isLit()) {
-				Reinforcement rein = Citadel.getInstance().getReinforcementManager().getReinforcement(block);
-				if (rein == null) {
-					return;
-				}
-				if (!rein.hasPermission(pie.getPlayer(), CitadelPermissionHandler.getModifyBlocks())) {
-					pie.getPlayer().sendMessage(ChatColor.RED + "You do not have permission to modify this block");
-					pie.setCancelled(true);
-					return;
-				}
-			}
-		}
-		EquipmentSlot hand = pie.getHand();
-		if (hand != EquipmentSlot.HAND && hand != EquipmentSlot.OFF_HAND) {
-			return;
-		}
-		ItemStack relevant;
-		Player p = pie.getPlayer();
-		if (hand == EquipmentSlot.HAND) {
-			relevant = p.getInventory().getItemInMainHand();
-		} else {
-			relevant = p.getInventory().getItemInOffHand();
-		}
-		if (relevant.getType() != Material.FLINT_AND_STEEL) {
-			return;
-		}
-		Reinforcement rein = Citadel.getInstance().getReinforcementManager().getReinforcement(block);
-		if (rein == null) {
-			return;
-		}
-		if (!rein.hasPermission(p, CitadelPermissionHandler.getModifyBlocks())) {
-			p.sendMessage(ChatColor.RED + "You do not have permission to modify this block");
-			pie.setCancelled(true);
-		}
-	}
-
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = false)
-	public void openBeacon(PlayerInteractEvent pie) {
-		if (!pie.hasBlock()) {
-			return;
-		}
-		if (pie.getAction() != Action.RIGHT_CLICK_BLOCK) {
-			return;
-		}
-		if (pie.getClickedBlock().getType() != Material.BEACON) {
-			return;
-		}
-		Reinforcement rein = ReinforcementLogic.getReinforcementProtecting(pie.getClickedBlock());
-		if (rein == null) {
-			return;
-		}
-		if (!rein.hasPermission(pie.getPlayer(), CitadelPermissionHandler.getBeacon())) {
-			pie.setCancelled(true);
-			String msg = String.format("%s is locked with %s%s", pie.getClickedBlock().getType().name(), ChatColor.AQUA,
-					rein.getType().getName());
-			CitadelUtility.sendAndLog(pie.getPlayer(), ChatColor.RED, msg, pie.getClickedBlock().getLocation());
-		}
-	}
-
 	// ------------------------------------------------------------
 	// Lecterns
 	// ------------------------------------------------------------
 
-	@EventHandler(ignoreCancelled = true)
-	public void preventLecternPutBook(final PlayerInteractEvent event) {
-		if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
-			return;
-		}
-		final var clickedBlock = event.getClickedBlock();
-		if (clickedBlock == null || clickedBlock.getType() != Material.LECTERN) {
-			return;
-		}
-		// if the lectern has a book, then the person is right clicking to read that book, not place in a new book
-		final var clickedBlockData = (Lectern) clickedBlock.getBlockData();
-		if (clickedBlockData.hasBook()) {
-			return;
-		}
-		INTERNAL_checkLecternModificationPermission(event, event.getPlayer(), clickedBlock.getLocation());
-	}
-
 	@EventHandler(ignoreCancelled = true)
 	public void preventLecternTakeBook(final PlayerTakeLecternBookEvent event) {
 		INTERNAL_checkLecternModificationPermission(event, event.getPlayer(), event.getLectern().getLocation());
@@ -609,28 +233,4 @@ public class BlockListener implements Listener {
 		}
 		mossSpreadingDispensers.put(moss, dispenserBlock);
 	}
-
-	@EventHandler(ignoreCancelled = true)
-	public void preventHostileAnvilUsage(
-			final PlayerInteractEvent event
-	) {
-		if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
-			return;
-		}
-		final Block clickedBlock = event.getClickedBlock();
-		if (clickedBlock == null || !Tag.ANVIL.isTagged(clickedBlock.getType())) {
-			return;
-		}
-		final Player clicker = event.getPlayer();
-		// We already know that an anvil is a single block, thus the additional logic
-		// of ReinforcementLogic.getReinforcementProtecting(block) is unnecessary
-		final Reinforcement reinforcement = ReinforcementLogic.getReinforcementAt(clickedBlock.getLocation());
-		if (reinforcement == null
-				|| reinforcement.isInsecure()
-				|| reinforcement.hasPermission(clicker.getUniqueId(), CitadelPermissionHandler.getChests())) {
-			return;
-		}
-		event.setCancelled(true);
-		CitadelUtility.sendAndLog(clicker, ChatColor.RED, "You cannot use that anvil.", clickedBlock.getLocation());
-	}
 }
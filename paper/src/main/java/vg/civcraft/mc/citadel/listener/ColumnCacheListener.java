@@ -0,0 +1,143 @@
+package vg.civcraft.mc.citadel.listener;
+
+import com.destroystokyo.paper.event.block.BlockDestroyEvent;
+import java.util.List;
+import org.bukkit.Chunk;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFertilizeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockGrowEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.StructureGrowEvent;
+import vg.civcraft.mc.citadel.model.ColumnAnchorCache;
+
+/**
+ * Drops cached plant column anchors whenever a block in their column changes. Changes which fire no event, such as
+ * plugins setting blocks directly, are partially caught by the cache itself, see
+ * {@link ColumnAnchorCache#findAnchor(org.bukkit.World, int, int, int, int, org.bukkit.Material, org.bukkit.Material)}
+ */
+public class ColumnCacheListener implements Listener {
+
+	private final ColumnAnchorCache cache;
+
+	public ColumnCacheListener(ColumnAnchorCache cache) {
+		this.cache = cache;
+	}
+
+	private void invalidate(Block block) {
+		cache.invalidate(block.getWorld(), block.getX(), block.getZ());
+	}
+
+	private void invalidate(List<Block> blocks) {
+		for (Block block : blocks) {
+			invalidate(block);
+		}
+	}
+
+	private void invalidateStates(List<BlockState> states) {
+		for (BlockState state : states) {
+			cache.invalidate(state.getWorld(), state.getX(), state.getZ());
+		}
+	}
+
+	private void invalidateMoved(List<Block> blocks, BlockFace direction) {
+		for (Block block : blocks) {
+			invalidate(block);
+			cache.invalidate(block.getWorld(), block.getX() + direction.getModX(), block.getZ() + direction.getModZ());
+		}
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onBreak(BlockBreakEvent event) {
+		invalidate(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onPlace(BlockPlaceEvent event) {
+		invalidate(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onBurn(BlockBurnEvent event) {
+		invalidate(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onFade(BlockFadeEvent event) {
+		invalidate(event.getBlock());
+	}
+
+	// also covers forming and spreading
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onGrow(BlockGrowEvent event) {
+		invalidate(event.getBlock());
+	}
+
+	// trees, huge mushrooms and dripleaf growing or being bonemealed
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onStructureGrow(StructureGrowEvent event) {
+		invalidateStates(event.getBlocks());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onFertilize(BlockFertilizeEvent event) {
+		invalidate(event.getBlock());
+		invalidateStates(event.getBlocks());
+	}
+
+	// blocks destroyed by physics, for example sugar cane losing the block below it
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onDestroy(BlockDestroyEvent event) {
+		invalidate(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onFlow(BlockFromToEvent event) {
+		invalidate(event.getToBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+		invalidate(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onBlockExplode(BlockExplodeEvent event) {
+		invalidate(event.blockList());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onEntityExplode(EntityExplodeEvent event) {
+		invalidate(event.blockList());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onPistonExtend(BlockPistonExtendEvent event) {
+		invalidateMoved(event.getBlocks(), event.getDirection());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onPistonRetract(BlockPistonRetractEvent event) {
+		invalidateMoved(event.getBlocks(), event.getDirection());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onChunkUnload(ChunkUnloadEvent event) {
+		Chunk chunk = event.getChunk();
+		cache.chunkUnloaded(chunk.getWorld(), chunk.getX(), chunk.getZ());
+	}
+}
@@ -0,0 +1,76 @@
+package vg.civcraft.mc.citadel.listener;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import vg.civcraft.mc.citadel.activity.ActivityMap;
+import vg.civcraft.mc.citadel.model.PermissionDecisionCache;
+import vg.civcraft.mc.citadel.model.PlayerPermissionSnapshots;
+import vg.civcraft.mc.citadel.model.Reinforcement;
+import vg.civcraft.mc.namelayer.events.GroupDeleteEvent;
+import vg.civcraft.mc.namelayer.events.GroupInvalidationEvent;
+import vg.civcraft.mc.namelayer.events.GroupMergeEvent;
+import vg.civcraft.mc.namelayer.events.GroupTransferEvent;
+import vg.civcraft.mc.namelayer.events.PromotePlayerEvent;
+
+/**
+ * Drops everything Citadel remembers about groups whenever NameLayer announces a change to one
+ */
+public class GroupChangeListener implements Listener {
+
+	private final PermissionDecisionCache permissionCache;
+	private final PlayerPermissionSnapshots permissionSnapshots;
+	private final ActivityMap activityMap;
+
+	/**
+	 * @param permissionCache     Permission cache to invalidate, may be null
+	 * @param permissionSnapshots Permission snapshots to invalidate, may be null
+	 * @param activityMap         Activity map whose bypass groups to invalidate
+	 */
+	public GroupChangeListener(PermissionDecisionCache permissionCache,
+			PlayerPermissionSnapshots permissionSnapshots, ActivityMap activityMap) {
+		this.permissionCache = permissionCache;
+		this.permissionSnapshots = permissionSnapshots;
+		this.activityMap = activityMap;
+	}
+
+	private void groupsChanged() {
+		Reinforcement.invalidateCachedGroups();
+		permissionsChanged();
+	}
+
+	private void permissionsChanged() {
+		if (permissionCache != null) {
+			permissionCache.invalidateAll();
+		}
+		if (permissionSnapshots != null) {
+			permissionSnapshots.invalidateAll();
+		}
+		activityMap.invalidateBypassGroups();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onGroupInvalidation(GroupInvalidationEvent event) {
+		groupsChanged();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onGroupDelete(GroupDeleteEvent event) {
+		groupsChanged();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onGroupMerge(GroupMergeEvent event) {
+		groupsChanged();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onGroupTransfer(GroupTransferEvent event) {
+		permissionsChanged();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onPromote(PromotePlayerEvent event) {
+		permissionsChanged();
+	}
+}
@@ -0,0 +1,142 @@
+package vg.civcraft.mc.citadel.listener;
+
+import com.destroystokyo.paper.MaterialTags;
+import java.util.ArrayList;
+import java.util.List;
+import org.bukkit.Material;
+import org.bukkit.Tag;
+import org.bukkit.block.Block;
+import org.bukkit.block.Container;
+import org.bukkit.block.data.Openable;
+import org.bukkit.block.data.type.Lectern;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEvent;
+import vg.civcraft.mc.citadel.CitadelPermissionHandler;
+import vg.civcraft.mc.citadel.interact.CandleRule;
+import vg.civcraft.mc.citadel.interact.InteractContext;
+import vg.civcraft.mc.citadel.interact.InteractRule;
+import vg.civcraft.mc.citadel.interact.LockRule;
+import vg.civcraft.mc.citadel.interact.SharedBlockRule;
+import vg.civcraft.mc.citadel.interact.ToolModificationRule;
+import vg.civcraft.mc.civmodcore.inventory.items.MoreTags;
+
+/**
+ * Single handler for all restrictions on right clicking reinforced blocks. Rules are looked up by the material of the
+ * clicked block, so clicks on blocks without any rules cost one array access, and all rules for the same click share
+ * reinforcement lookups and permission checks through an {@link InteractContext}
+ */
+public class InteractListener implements Listener {
+
+	private static final InteractRule[] NO_RULES = new InteractRule[0];
+
+	private final InteractRule containerRule;
+	private final InteractRule openableRule;
+	private final InteractRule[][] staticRules;
+	// rules per material ordinal including container and door rules, built on first click since whether a material is
+	// a container is only known from its block state
+	private final InteractRule[][] rules;
+
+	public InteractListener() {
+		this.containerRule = new LockRule(CitadelPermissionHandler.getChests(), false);
+		this.openableRule = new LockRule(CitadelPermissionHandler.getDoors(), false);
+		this.staticRules = new InteractRule[Material.values().length][];
+		this.rules = new InteractRule[Material.values().length][];
+		String modifyMessage = "You do not have permission to modify this block";
+		InteractRule stripping = new ToolModificationRule(MaterialTags.AXES::isTagged, modifyMessage);
+		InteractRule pathing = new ToolModificationRule(MaterialTags.SHOVELS::isTagged, modifyMessage);
+		InteractRule tilling = new ToolModificationRule(MaterialTags.HOES::isTagged, modifyMessage);
+		InteractRule honey = new ToolModificationRule(
+				tool -> tool == Material.SHEARS || tool == Material.GLASS_BOTTLE,
+				"You do not have permission to harvest this block");
+		InteractRule candles = new CandleRule();
+		InteractRule beacon = new LockRule(CitadelPermissionHandler.getBeacon(), true);
+		// if the lectern has a book, then the person is right clicking to read that book, not place in a new book
+		InteractRule lectern = new SharedBlockRule(block -> !((Lectern) block.getBlockData()).hasBook(),
+				"You cannot modify that lectern.");
+		InteractRule anvil = new SharedBlockRule(block -> true, "You cannot use that anvil.");
+		for (Material mat : Material.values()) {
+			if (!mat.isBlock()) {
+				continue;
+			}
+			List<InteractRule> matRules = new ArrayList<>();
+			if (MoreTags.LOGS.isTagged(mat)) {
+				matRules.add(stripping);
+			}
+			if (mat == Material.GRASS_BLOCK) {
+				matRules.add(pathing);
+			}
+			if (mat == Material.GRASS_BLOCK || mat == Material.DIRT || mat == Material.COARSE_DIRT
+					|| mat == Material.DIRT_PATH) {
+				matRules.add(tilling);
+			}
+			if (mat == Material.BEE_NEST || mat == Material.BEEHIVE) {
+				matRules.add(honey);
+			}
+			if (MoreTags.LIGHTABLE_CANDLES.isTagged(mat)) {
+				matRules.add(candles);
+			}
+			if (mat == Material.BEACON) {
+				matRules.add(beacon);
+			}
+			if (mat == Material.LECTERN) {
+				matRules.add(lectern);
+			}
+			if (Tag.ANVIL.isTagged(mat)) {
+				matRules.add(anvil);
+			}
+			staticRules[mat.ordinal()] = matRules.toArray(NO_RULES);
+		}
+	}
+
+	@EventHandler(priority = EventPriority.LOW)
+	public void onInteract(PlayerInteractEvent event) {
+		if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
+			return;
+		}
+		Block block = event.getClickedBlock();
+		if (block == null) {
+			return;
+		}
+		Material type = block.getType();
+		InteractRule[] matRules = getRules(block, type);
+		if (matRules.length == 0) {
+			return;
+		}
+		InteractContext context = new InteractContext(event, block, type);
+		for (InteractRule rule : matRules) {
+			if (context.isCancelled() && !rule.appliesToCancelled()) {
+				continue;
+			}
+			rule.apply(context);
+		}
+	}
+
+	private InteractRule[] getRules(Block block, Material type) {
+		InteractRule[] matRules = rules[type.ordinal()];
+		if (matRules != null) {
+			return matRules;
+		}
+		InteractRule[] base = staticRules[type.ordinal()];
+		if (base == null) {
+			base = NO_RULES;
+		}
+		InteractRule lockRule = null;
+		if (block.getState() instanceof Container) {
+			lockRule = containerRule;
+		} else if (block.getBlockData() instanceof Openable) {
+			lockRule = openableRule;
+		}
+		if (lockRule == null) {
+			matRules = base;
+		} else {
+			matRules = new InteractRule[base.length + 1];
+			matRules[0] = lockRule;
+			System.arraycopy(base, 0, matRules, 1, base.length);
+		}
+		rules[type.ordinal()] = matRules;
+		return matRules;
+	}
+}
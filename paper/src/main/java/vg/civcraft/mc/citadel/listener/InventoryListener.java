@@ -10,12 +10,22 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryMoveItemEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
+import vg.civcraft.mc.citadel.Citadel;
 import vg.civcraft.mc.citadel.ReinforcementLogic;
+import vg.civcraft.mc.citadel.ResponsibleBlockResolver;
 import vg.civcraft.mc.citadel.model.Reinforcement;
+import vg.civcraft.mc.citadel.model.TransferDecisionCache;
 import vg.civcraft.mc.civmodcore.world.WorldUtils;
 
 public class InventoryListener implements Listener {
 
+	// may be null if disabled
+	private final TransferDecisionCache transferCache;
+
+	public InventoryListener(TransferDecisionCache transferCache) {
+		this.transferCache = transferCache;
+	}
+
 	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
 	public void onInventoryMoveItemEvent(InventoryMoveItemEvent event) {
 		Inventory fromInventory = event.getSource();
@@ -51,6 +61,28 @@ public class InventoryListener implements Listener {
 			}
 		}
 
+		// Decisions between two containers in the inside of loaded chunks can be reused until a reinforcement or
+		// block in their chunks changes
+		boolean cacheable = transferCache != null && isFromBlock && isDestBlock && !fromAtChunkBorder
+				&& !destAtChunkBorder && fromLocation.getWorld() == destLocation.getWorld();
+		short worldID = 0;
+		long fromPosition = 0;
+		long destPosition = 0;
+		if (cacheable) {
+			worldID = Citadel.getInstance().getReinforcementManager().getWorldID(fromLocation.getWorld());
+			fromPosition = ResponsibleBlockResolver.pack(fromLocation.getBlockX(), fromLocation.getBlockY(),
+					fromLocation.getBlockZ());
+			destPosition = ResponsibleBlockResolver.pack(destLocation.getBlockX(), destLocation.getBlockY(),
+					destLocation.getBlockZ());
+			Boolean allowed = transferCache.get(worldID, fromPosition, destPosition);
+			if (allowed != null) {
+				if (!allowed) {
+					event.setCancelled(true);
+				}
+				return;
+			}
+		}
+
 		// Determine the reinforcement of the source
 		Reinforcement fromReinforcement = null;
 		if (isFromBlock) {
@@ -89,35 +121,36 @@ public class InventoryListener implements Listener {
 			}
 			destReinforcement = ReinforcementLogic.getReinforcementProtecting(destLocation.getBlock());
 		}
+		boolean allowed = isTransferAllowed(fromReinforcement, destReinforcement);
+		if (cacheable) {
+			transferCache.put(worldID, fromPosition, destPosition, allowed);
+		}
+		if (!allowed) {
+			event.setCancelled(true);
+		}
+	}
+
+	private static boolean isTransferAllowed(Reinforcement fromReinforcement, Reinforcement destReinforcement) {
 		// Allow the transfer if neither are reinforced
 		if (fromReinforcement == null && destReinforcement == null) {
-			return;
+			return true;
 		}
 		// Allow the transfer if the destination is un-reinforced and the source is
 		// insecure
 		if (destReinforcement == null) {
-			if (!fromReinforcement.isInsecure()) {
-				event.setCancelled(true);
-			}
-			return;
+			return fromReinforcement.isInsecure();
 		}
 		// Allow the transfer if the source is un-reinforced and the destination is
 		// insecure
 		if (fromReinforcement == null) {
-			if (!destReinforcement.isInsecure()) {
-				event.setCancelled(true);
-			}
-			return;
+			return destReinforcement.isInsecure();
 		}
 		// Allow the transfer if both the source and destination are insecure
 		if (fromReinforcement.isInsecure() && destReinforcement.isInsecure()) {
-			return;
+			return true;
 		}
 		// Allow the transfer if both the source and destination are on the same group
-		if (fromReinforcement.getGroupId() == destReinforcement.getGroupId()) {
-			return;
-		}
-		event.setCancelled(true);
+		return fromReinforcement.getGroupId() == destReinforcement.getGroupId();
 	}
 	
 	private static boolean isAtChunkBorder(Location location) {
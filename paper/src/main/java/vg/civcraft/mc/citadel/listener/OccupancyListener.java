@@ -0,0 +1,25 @@
+package vg.civcraft.mc.citadel.listener;
+
+import org.bukkit.Chunk;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import vg.civcraft.mc.citadel.model.ReinforcementOccupancy;
+import vg.civcraft.mc.civmodcore.CivModCorePlugin;
+
+public class OccupancyListener implements Listener {
+
+	private final ReinforcementOccupancy occupancy;
+
+	public OccupancyListener(ReinforcementOccupancy occupancy) {
+		this.occupancy = occupancy;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onChunkUnload(ChunkUnloadEvent event) {
+		Chunk chunk = event.getChunk();
+		short worldID = CivModCorePlugin.getInstance().getWorldIdManager().getInternalWorldId(chunk.getWorld());
+		occupancy.chunkUnloaded(worldID, chunk.getX(), chunk.getZ());
+	}
+}
@@ -0,0 +1,30 @@
+package vg.civcraft.mc.citadel.listener;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import vg.civcraft.mc.citadel.model.PlayerPermissionSnapshots;
+
+/**
+ * Builds permission snapshots of players on login and drops them on logout
+ */
+public class PermissionSnapshotListener implements Listener {
+
+	private final PlayerPermissionSnapshots snapshots;
+
+	public PermissionSnapshotListener(PlayerPermissionSnapshots snapshots) {
+		this.snapshots = snapshots;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onJoin(PlayerJoinEvent event) {
+		snapshots.rebuild(event.getPlayer().getUniqueId());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onQuit(PlayerQuitEvent event) {
+		snapshots.remove(event.getPlayer().getUniqueId());
+	}
+}
@@ -0,0 +1,56 @@
+package vg.civcraft.mc.citadel.listener;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.bukkit.Material;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+import vg.civcraft.mc.citadel.place.ChestBypassRule;
+import vg.civcraft.mc.citadel.place.ComparatorRule;
+import vg.civcraft.mc.citadel.place.CopperWaxRule;
+import vg.civcraft.mc.citadel.place.PlaceContext;
+import vg.civcraft.mc.citadel.place.PlaceRule;
+import vg.civcraft.mc.citadel.place.PlantRule;
+import vg.civcraft.mc.citadel.place.RemoveReinforcedAirRule;
+
+/**
+ * Runs all checks on placed blocks as one ordered pipeline, sharing reinforcement lookups and permission checks
+ * through a {@link PlaceContext}. Reinforcing placed blocks, for example in fortification mode, is left to the player
+ * state handling in {@link BlockListener}, which has to run after other plugins had the chance to cancel
+ */
+public class PlaceListener implements Listener {
+
+	private static final PlaceRule[] NO_RULES = new PlaceRule[0];
+
+	// pipeline per material ordinal, in the order the rules have to run in
+	private final PlaceRule[][] rules;
+
+	public PlaceListener() {
+		// order matters, leftover air reinforcements have to be gone before any other rule looks at reinforcements
+		PlaceRule[] pipeline = {new RemoveReinforcedAirRule(), new ChestBypassRule(), new PlantRule(),
+				new CopperWaxRule(), new ComparatorRule()};
+		this.rules = new PlaceRule[Material.values().length][];
+		for (Material mat : Material.values()) {
+			List<PlaceRule> matRules = new ArrayList<>();
+			for (PlaceRule rule : pipeline) {
+				if (rule.appliesTo(mat)) {
+					matRules.add(rule);
+				}
+			}
+			rules[mat.ordinal()] = matRules.toArray(NO_RULES);
+		}
+	}
+
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	public void onPlace(BlockPlaceEvent event) {
+		PlaceContext context = new PlaceContext(event);
+		for (PlaceRule rule : rules[context.getType().ordinal()]) {
+			rule.apply(context);
+			if (event.isCancelled()) {
+				return;
+			}
+		}
+	}
+}
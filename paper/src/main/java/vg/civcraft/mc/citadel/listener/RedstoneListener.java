@@ -1,5 +1,6 @@
 package vg.civcraft.mc.citadel.listener;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -33,11 +34,23 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import vg.civcraft.mc.citadel.Citadel;
 import vg.civcraft.mc.citadel.CitadelPermissionHandler;
 import vg.civcraft.mc.citadel.ReinforcementLogic;
+import vg.civcraft.mc.citadel.ResponsibleBlockResolver;
 import vg.civcraft.mc.citadel.model.Reinforcement;
 import vg.civcraft.mc.civmodcore.world.WorldUtils;
 
 public class RedstoneListener implements Listener {
 
+	// ordinals of all materials whose block data is Openable, redstone changes of anything else are ignored
+	private static final BitSet OPENABLE = new BitSet();
+
+	static {
+		for (Material mat : Material.values()) {
+			if (mat.isBlock() && !mat.isLegacy() && mat.createBlockData() instanceof Openable) {
+				OPENABLE.set(mat.ordinal());
+			}
+		}
+	}
+
 	private static boolean isAuthorizedPlayerNear(Reinforcement reinforcement, double distance) {
 		Location reinLocation = reinforcement.getLocation();
 
@@ -127,6 +140,13 @@ public class RedstoneListener implements Listener {
 			return;
 		}
 		Block block = bre.getBlock();
+		Material type = block.getType();
+		if (!OPENABLE.get(type.ordinal())) {
+			return;
+		}
+		if (isInUnreinforcedChunk(block, type)) {
+			return;
+		}
 		BlockData blockData = block.getBlockData();
 		if (!(blockData instanceof Openable)) {
 			return;
@@ -168,6 +188,19 @@ public class RedstoneListener implements Listener {
 		bre.setNewCurrent(bre.getOldCurrent());
 	}
 
+	/**
+	 * Openables are only ever protected by a block in the same column unless configured otherwise, so if the chunk
+	 * contains no reinforcements at all there is nothing to protect
+	 */
+	private static boolean isInUnreinforcedChunk(Block block, Material type) {
+		ResponsibleBlockResolver.Strategy strategy = ResponsibleBlockResolver.getStrategy(type);
+		if (strategy != ResponsibleBlockResolver.Strategy.SELF && strategy != ResponsibleBlockResolver.Strategy.DOOR) {
+			return false;
+		}
+		return Citadel.getInstance().getReinforcementManager().isChunkCertainlyUnreinforced(block.getWorld(),
+				block.getX() >> 4, block.getZ() >> 4);
+	}
+
 	private void setupAdjacentDoors(Player player, Block block, BlockFace skip) {
 		for (Entry<BlockFace, Block> entry : WorldUtils.getAllBlockSidesMapped(block, true).entrySet()) {
 			if (entry.getKey() == skip) {
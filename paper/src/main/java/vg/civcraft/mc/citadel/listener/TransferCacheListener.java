@@ -0,0 +1,61 @@
+package vg.civcraft.mc.citadel.listener;
+
+import org.bukkit.Chunk;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import vg.civcraft.mc.citadel.Citadel;
+import vg.civcraft.mc.citadel.ResponsibleBlockResolver;
+import vg.civcraft.mc.citadel.model.TransferDecisionCache;
+
+/**
+ * Keeps the chunk modification epochs of the hopper transfer cache up to date. Changes to reinforcements are reported
+ * by the reinforcements themselves, this covers chunk loading and blocks being placed or broken, which may for example
+ * turn a single chest into a double chest. Blocks which are protected by their own reinforcement can not change which
+ * reinforcement protects a container, so placing or breaking them keeps the cached decisions of their chunk
+ */
+public class TransferCacheListener implements Listener {
+
+	private final TransferDecisionCache cache;
+
+	public TransferCacheListener(TransferDecisionCache cache) {
+		this.cache = cache;
+	}
+
+	private void blockChanged(Block block) {
+		if (ResponsibleBlockResolver.getStrategy(block.getType()) == ResponsibleBlockResolver.Strategy.SELF) {
+			return;
+		}
+		short worldID = Citadel.getInstance().getReinforcementManager().getWorldID(block.getWorld());
+		cache.blockChanged(worldID, block.getX(), block.getZ());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onChunkLoad(ChunkLoadEvent event) {
+		Chunk chunk = event.getChunk();
+		short worldID = Citadel.getInstance().getReinforcementManager().getWorldID(chunk.getWorld());
+		cache.chunkLoaded(worldID, chunk.getX(), chunk.getZ());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onChunkUnload(ChunkUnloadEvent event) {
+		Chunk chunk = event.getChunk();
+		short worldID = Citadel.getInstance().getReinforcementManager().getWorldID(chunk.getWorld());
+		cache.chunkUnloaded(worldID, chunk.getX(), chunk.getZ());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onPlace(BlockPlaceEvent event) {
+		blockChanged(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onBreak(BlockBreakEvent event) {
+		blockChanged(event.getBlock());
+	}
+}
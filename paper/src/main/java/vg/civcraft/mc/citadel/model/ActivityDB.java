@@ -24,6 +24,8 @@ public class ActivityDB {
 	private static final String EXISTS_INDEX = "SELECT * FROM information_schema.statistics WHERE table_name = 'ctdl_activity_map' AND table_schema = database() AND index_name = 'PRIMARY' AND seq_in_index = 1 AND column_name = 'resolution' LIMIT 0, 1";
 	private static final String CREATE_INDEX = "ALTER TABLE ctdl_activity_map DROP PRIMARY KEY, ADD PRIMARY KEY (resolution, world, x, z, group_id)";
 	private static final String GET_REGION_ACTIVITIES = "SELECT group_id, activity FROM ctdl_activity_map WHERE world = ? AND x = ? AND z = ? AND resolution = ?";
+	// range over the (resolution, world, x, z, group_id) primary key
+	private static final String GET_REGION_RANGE_ACTIVITIES = "SELECT group_id, x, z, activity FROM ctdl_activity_map WHERE resolution = ? AND world = ? AND x BETWEEN ? AND ? AND z BETWEEN ? AND ?";
 	private static final String UPDATE_ACTIVITY = "INSERT INTO ctdl_activity_map (group_id, world, x, z, resolution, activity) VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE activity = ?";
 
 	private final ManagedDatasource datasource;
@@ -103,4 +105,37 @@ public class ActivityDB {
 			ex.printStackTrace();
 		}
 	}
+
+	/**
+	 * Selects the activities of all regions in the given rectangle of region coordinates, bounds inclusive, in a single
+	 * query
+	 */
+	public void selectRange(short worldId, int minX, int maxX, int minZ, int maxZ, int resolution,
+			Consumer<ActivityItem> process) {
+		try (Connection connection = datasource.getConnection()) {
+			connection.setAutoCommit(false);
+			try (PreparedStatement statement = connection.prepareStatement(GET_REGION_RANGE_ACTIVITIES, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+				statement.setFetchSize(Integer.MIN_VALUE);
+				statement.setInt(1, resolution);
+				statement.setShort(2, worldId);
+				statement.setInt(3, minX);
+				statement.setInt(4, maxX);
+				statement.setInt(5, minZ);
+				statement.setInt(6, maxZ);
+
+				try (ResultSet resultSet = statement.executeQuery()) {
+					while (resultSet.next()) {
+						int groupId = resultSet.getInt("group_id");
+						int x = resultSet.getInt("x");
+						int z = resultSet.getInt("z");
+						Instant activity = resultSet.getTimestamp("activity").toInstant();
+
+						process.accept(new ActivityItem(worldId, groupId, x, z, activity, resolution));
+					}
+				}
+			}
+		} catch (SQLException ex) {
+			ex.printStackTrace();
+		}
+	}
 }
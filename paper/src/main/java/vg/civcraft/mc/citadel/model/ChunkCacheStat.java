@@ -0,0 +1,12 @@
+package vg.civcraft.mc.citadel.model;
+
+public class ChunkCacheStat {
+	public int chunks;
+	public long sizeBytes;
+	public long maxSizeBytes;
+	public long hits;
+	public long misses;
+	public long evictions;
+	public long invalidations;
+	public long prefetched;
+}
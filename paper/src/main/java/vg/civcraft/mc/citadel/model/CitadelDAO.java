@@ -1,5 +1,12 @@
 package vg.civcraft.mc.citadel.model;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import java.io.File;
+import java.io.IOException;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -7,16 +14,18 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
-import org.bukkit.World;
 import org.bukkit.inventory.meta.ItemMeta;
 import vg.civcraft.mc.citadel.Citadel;
 import vg.civcraft.mc.citadel.reinforcementtypes.ReinforcementType;
@@ -31,79 +40,590 @@ import vg.civcraft.mc.civmodcore.world.locations.global.WorldIDManager;
 
 public class CitadelDAO extends TableStorageEngine<Reinforcement> {
 
+	private static final String INSERT_REINFORCEMENT = "insert into ctdl_reinforcements (chunk_x, chunk_z, world_id, "
+			+ "x_offset, y, z_offset, type_id, health, group_id, insecure, creation_time) values(?,?,?, ?,?,?, ?,?,?,?,?);";
+	private static final String UPDATE_REINFORCEMENT = "update ctdl_reinforcements set type_id = ?, health = ?, "
+			+ "group_id = ?, insecure = ?, creation_time = ? where chunk_x = ? and chunk_z = ? and world_id = ? and "
+			+ "x_offset = ? and y = ? and z_offset = ?;";
+	private static final String DELETE_REINFORCEMENT = "delete from ctdl_reinforcements where chunk_x = ? and "
+			+ "chunk_z = ? and world_id = ? and x_offset = ? and y = ? and z_offset = ?;";
+	private static final int INSERT_PARAMETERS = 11;
+	private static final int DELETE_PARAMETERS = 6;
+
 	private boolean batchMode;
-	private List<List<ReinforcementTuple>> batches;
+	private ReinforcementWriteBuffer batches;
+	private volatile ReinforcementWriteBehind writeBehind;
+	private volatile int upsertWidth;
+	private volatile PopulatedChunkIndex chunkIndex;
+	private volatile ReinforcementChunkCache chunkCache;
+	private volatile int prefetchRadius;
+	private volatile ReinforcementOccupancy occupancy;
+	private final AtomicLong skippedChunkLoads = new AtomicLong();
+	// set once the journal was replayed, writes failing at shutdown are journaled there for the next start
+	private File journalFolder;
 
 	public CitadelDAO(Logger logger, ManagedDatasource db) {
 		super(logger, db);
 		this.batchMode = false;
 	}
 
+	/**
+	 * Packs a chunk coordinate into a single long, which is unique as long as the chunk coordinates fit into 24 bits,
+	 * so for any world smaller than 134 million blocks in each direction
+	 *
+	 * @param worldID Internal CivModCore id of the world
+	 * @param chunkX  X-coordinate of the chunk
+	 * @param chunkZ  Z-coordinate of the chunk
+	 * @return Key unique to the given chunk
+	 */
+	public static long toChunkKey(short worldID, int chunkX, int chunkZ) {
+		return ((long) (worldID & 0xFFFF) << 48) | (((long) chunkX & 0xFFFFFFL) << 24) | ((long) chunkZ & 0xFFFFFFL);
+	}
+
+	/**
+	 * Switches persistence to write behind mode, in which inserts, updates and deletions are queued and flushed from
+	 * a background thread instead of being written immediately
+	 *
+	 * @param flushIntervalMs Maximum time in milliseconds a change may wait in the queue
+	 * @param maxBatchSize    Maximum amount of rows written per batch, reaching it also triggers a flush
+	 * @param journalFolder   Folder to journal queued changes in, so they survive a crash. May be null to not use a
+	 *                        journal
+	 */
+	public void enableWriteBehind(long flushIntervalMs, int maxBatchSize, File journalFolder) {
+		ReinforcementJournal journal = null;
+		if (journalFolder != null) {
+			journal = new ReinforcementJournal(logger, journalFolder);
+			try {
+				journal.open();
+			} catch (IOException e) {
+				logger.log(Level.SEVERE, "Failed to open reinforcement journal, continuing without it: ", e);
+				journal = null;
+			}
+		}
+		ReinforcementWriteBehind queue = new ReinforcementWriteBehind(logger, this, flushIntervalMs, maxBatchSize,
+				journal);
+		queue.start();
+		this.writeBehind = queue;
+	}
+
+	/**
+	 * Keeps track of which chunks contain reinforcements, so loading empty chunks does not query the database. The
+	 * index is loaded from the database in the background and used once complete
+	 */
+	public void enablePopulatedChunkIndex() {
+		PopulatedChunkIndex index = new PopulatedChunkIndex();
+		// must be in place before loading, so no insert made while loading is missed
+		this.chunkIndex = index;
+		Thread loadThread = new Thread(() -> {
+			long start = System.currentTimeMillis();
+			LongOpenHashSet loaded = loadPopulatedChunks();
+			if (loaded == null) {
+				// index stays in its initial state and considers every chunk populated
+				return;
+			}
+			index.initialize(loaded);
+			logger.info("Indexed " + loaded.size() + " chunks containing reinforcements in "
+					+ (System.currentTimeMillis() - start) + " ms");
+		}, "Citadel chunk index loader");
+		loadThread.setDaemon(true);
+		loadThread.start();
+	}
+
+	/**
+	 * Keeps compact copies of recently loaded chunks in memory, so loading them again does not query the database
+	 *
+	 * @param maxSizeBytes Approximate memory budget of the cache
+	 */
+	public void enableChunkCache(long maxSizeBytes) {
+		this.chunkCache = new ReinforcementChunkCache(logger, maxSizeBytes);
+	}
+
+	/**
+	 * Loads the chunks around a chunk missing from the chunk cache with the same query and puts them into the chunk
+	 * cache, so the surrounding chunks loaded right after it do not query the database on their own. CivModCore loads
+	 * chunks one at a time, so this is the only way for a single query to serve many chunk loads. Requires the chunk
+	 * cache
+	 *
+	 * @param radius Distance in chunks around a loaded chunk to load along with it
+	 */
+	public void enableAreaPrefetch(int radius) {
+		this.prefetchRadius = radius;
+	}
+
+	/**
+	 * @return Statistics of the chunk cache or null if it is not enabled
+	 */
+	public ChunkCacheStat getChunkCacheStat() {
+		ReinforcementChunkCache cache = chunkCache;
+		return cache == null ? null : cache.getStat();
+	}
+
+	private void invalidateCachedChunk(XZWCoord coord) {
+		ReinforcementChunkCache cache = chunkCache;
+		if (cache != null) {
+			cache.invalidate(toChunkKey(coord.getWorldID(), coord.getX(), coord.getZ()));
+		}
+	}
+
+	/**
+	 * @return Amount of chunks known to contain reinforcements or -1 if the index is disabled or not loaded yet
+	 */
+	public int getIndexedChunkCount() {
+		PopulatedChunkIndex index = chunkIndex;
+		return index == null || !index.isReady() ? -1 : index.size();
+	}
+
+	/**
+	 * @return How many chunk loads were answered without querying the database, because the chunk is known to be
+	 * empty
+	 */
+	public long getSkippedChunkLoads() {
+		return skippedChunkLoads.get();
+	}
+
+	private boolean isKnownEmpty(long chunkKey) {
+		PopulatedChunkIndex index = chunkIndex;
+		if (index != null && index.isKnownEmpty(chunkKey)) {
+			skippedChunkLoads.incrementAndGet();
+			return true;
+		}
+		return false;
+	}
+
+	private LongOpenHashSet loadPopulatedChunks() {
+		LongOpenHashSet result = new LongOpenHashSet();
+		try (Connection insertConn = db.getConnection();
+				PreparedStatement selectChunks = insertConn.prepareStatement(
+						"select chunk_x, chunk_z, world_id from ctdl_reinforcements group by chunk_x, chunk_z, world_id");
+				ResultSet rs = selectChunks.executeQuery()) {
+			while (rs.next()) {
+				result.add(toChunkKey(rs.getShort(3), rs.getInt(1), rs.getInt(2)));
+			}
+		} catch (SQLException e) {
+			logger.log(Level.SEVERE, "Failed to load populated chunks from db: ", e);
+			return null;
+		}
+		return result;
+	}
+
+	/**
+	 * Persists all changes left in the journal by a previous run which did not shut down cleanly and removes the
+	 * journal afterwards. Must be called before any reinforcements are loaded
+	 *
+	 * @param journalFolder Folder containing the journal
+	 * @return False if the journal exists, but could not be replayed
+	 */
+	public boolean replayJournal(File journalFolder) {
+		this.journalFolder = journalFolder;
+		List<ReinforcementJournal.Entry> entries;
+		try {
+			entries = ReinforcementJournal.readAll(logger, journalFolder);
+		} catch (IOException e) {
+			logger.log(Level.SEVERE, "Failed to read reinforcement journal: ", e);
+			return false;
+		}
+		if (entries.isEmpty()) {
+			ReinforcementJournal.deleteAll(logger, journalFolder);
+			return true;
+		}
+		// only the last change per position matters
+		Map<ReinforcementKey, ReinforcementJournal.Entry> finalStates = new LinkedHashMap<>();
+		for (ReinforcementJournal.Entry entry : entries) {
+			finalStates.put(entry.getKey(), entry);
+		}
+		try (Connection conn = db.getConnection();
+				PreparedStatement upsertRein = conn.prepareStatement(buildMultiRowUpsert(1));
+				PreparedStatement deleteRein = conn.prepareStatement(DELETE_REINFORCEMENT);) {
+			conn.setAutoCommit(false);
+			try {
+				for (ReinforcementJournal.Entry entry : finalStates.values()) {
+					PreparedStatement statement = entry.op() == ReinforcementJournal.DELETE ? deleteRein : upsertRein;
+					statement.setInt(1, entry.chunkX());
+					statement.setInt(2, entry.chunkZ());
+					statement.setShort(3, entry.worldID());
+					statement.setByte(4, entry.xOffset());
+					statement.setShort(5, entry.y());
+					statement.setByte(6, entry.zOffset());
+					if (statement == upsertRein) {
+						upsertRein.setShort(7, entry.typeID());
+						upsertRein.setFloat(8, entry.health());
+						upsertRein.setInt(9, entry.groupID());
+						upsertRein.setBoolean(10, entry.insecure());
+						upsertRein.setTimestamp(11, new Timestamp(entry.creationTime()));
+					}
+					statement.addBatch();
+				}
+				deleteRein.executeBatch();
+				upsertRein.executeBatch();
+				conn.commit();
+			} catch (SQLException e) {
+				conn.rollback();
+				throw e;
+			} finally {
+				conn.setAutoCommit(true);
+			}
+		} catch (SQLException e) {
+			logger.log(Level.SEVERE, "Failed to replay reinforcement journal: ", e);
+			return false;
+		}
+		ReinforcementJournal.deleteAll(logger, journalFolder);
+		logger.info("Replayed " + finalStates.size() + " reinforcement changes from journal");
+		return true;
+	}
+
+	/**
+	 * @return Statistics of the write behind queue or null if write behind is not enabled
+	 */
+	public WriteBehindStat getWriteBehindStat() {
+		ReinforcementWriteBehind queue = writeBehind;
+		return queue == null ? null : queue.getStat();
+	}
+
+	/**
+	 * Sets how many rows are written per statement. If larger than 0, inserts and updates are combined into multi row
+	 * upserts and deletions into multi row deletions keyed on the primary key
+	 *
+	 * @param upsertWidth Rows per statement or 0 to write every row with its own statement
+	 */
+	public void setUpsertWidth(int upsertWidth) {
+		this.upsertWidth = Math.max(0, upsertWidth);
+	}
+
+	/**
+	 * @param occupancy Tracks which blocks in loaded chunks may be reinforced and is told about every completely
+	 *                  loaded chunk
+	 */
+	public void setOccupancy(ReinforcementOccupancy occupancy) {
+		this.occupancy = occupancy;
+	}
+
 	public void setBatchMode(boolean batch) {
 		this.batchMode = batch;
-		batches = new ArrayList<>();
-		for (int i = 0; i < 3; i++) {
-			batches.add(new ArrayList<>());
-		}
+		batches = new ReinforcementWriteBuffer();
 	}
 
 	public void cleanupBatches() {
+		ReinforcementWriteBehind queue = writeBehind;
+		if (queue != null) {
+			// while write behind is enabled everything is routed through its queue instead of the batches
+			writeBehind = null;
+			queue.shutdown();
+		}
+		List<ReinforcementTuple> writes = batches.drain(Integer.MAX_VALUE);
 		long currentTime = System.currentTimeMillis();
+		if (upsertWidth > 0) {
+			logger.info("Upsert batch size: " + writes.size());
+			if (!persistWrites(writes)) {
+				// nothing is left to retry this at shutdown, so leave it to the journal replay on the next start
+				logger.log(Level.SEVERE, "Failed to persist " + writes.size()
+						+ " reinforcement changes at shutdown, journaling them to replay on the next start");
+				journalUnpersisted(writes);
+			}
+			logger.info("Upsert batch finish: " + (System.currentTimeMillis() - currentTime) + " ms");
+			return;
+		}
+		List<ReinforcementTuple> inserts = new ArrayList<>();
+		List<ReinforcementTuple> updates = new ArrayList<>();
+		List<ReinforcementTuple> deletes = new ArrayList<>();
+		splitByType(writes, inserts, updates, deletes);
 		try (Connection conn = db.getConnection();
-			 PreparedStatement deleteRein = conn.prepareStatement(
-					 "delete from ctdl_reinforcements where chunk_x = ? and chunk_z = ? and world_id = ? and "
-							 + "x_offset = ? and y = ? and z_offset = ?;");) {
+			 PreparedStatement deleteRein = conn.prepareStatement(DELETE_REINFORCEMENT);) {
 			conn.setAutoCommit(false);
-			for (ReinforcementTuple rein : batches.get(2)) {
+			for (ReinforcementTuple rein : deletes) {
 				setDeleteDataStatement(deleteRein, rein.rein, rein.coord);
 				deleteRein.addBatch();
 			}
 			logger.info("Batch 2: " + (System.currentTimeMillis() - currentTime) + " ms");
-			logger.info("Batch 2 Size: " + batches.get(2).size());
-			batches.get(2).clear();
+			logger.info("Batch 2 Size: " + deletes.size());
 			deleteRein.executeBatch();
 			conn.setAutoCommit(true);
+			deletes.clear();
 			logger.info("Batch 2 Finish: " + (System.currentTimeMillis() - currentTime) + " ms");
 		} catch (SQLException e) {
-			logger.log(Level.SEVERE, "Failed to delete reinforcement from db: ", e);
+			logger.log(Level.SEVERE, "Failed to delete reinforcements from db, journaling them to replay on the next "
+					+ "start: ", e);
+			journalUnpersisted(deletes);
 		}
 		try (Connection conn = db.getConnection();
-			 PreparedStatement insertRein = conn.prepareStatement(
-					 "insert into ctdl_reinforcements (chunk_x, chunk_z, world_id, x_offset, y, z_offset, type_id, "
-							 + "health, group_id, insecure, creation_time) values(?,?,?, ?,?,?, ?,?,?,?,?);");) {
+			 PreparedStatement insertRein = conn.prepareStatement(INSERT_REINFORCEMENT);) {
 			conn.setAutoCommit(false);
-			for (ReinforcementTuple rein : batches.get(0)) {
+			for (ReinforcementTuple rein : inserts) {
 				setInsertDataStatement(insertRein, rein.rein, rein.coord);
 				insertRein.addBatch();
 			}
 			logger.info("Batch 0: " + (System.currentTimeMillis() - currentTime) + " ms");
-			logger.info("Batch 0 Size: " + batches.get(0).size());
-			batches.get(0).clear();
+			logger.info("Batch 0 Size: " + inserts.size());
 			insertRein.executeBatch();
 			conn.setAutoCommit(true);
+			inserts.clear();
 			logger.info("Batch 0 Finish: " + (System.currentTimeMillis() - currentTime) + " ms");
 		} catch (SQLException e) {
-			logger.log(Level.SEVERE, "Failed to insert reinforcement into db: ", e);
+			logger.log(Level.SEVERE, "Failed to insert reinforcements into db, journaling them to replay on the next "
+					+ "start: ", e);
+			journalUnpersisted(inserts);
 		}
 		try (Connection conn = db.getConnection();
-			 PreparedStatement updateRein = conn.prepareStatement("update ctdl_reinforcements set type_id = ?, health = ?, group_id = ?, insecure = ?, creation_time = ? where "
-					 + "chunk_x = ? and chunk_z = ? and world_id = ? and x_offset = ? and y = ? and z_offset = ?;");) {
+			 PreparedStatement updateRein = conn.prepareStatement(UPDATE_REINFORCEMENT);) {
 			conn.setAutoCommit(false);
-			for (ReinforcementTuple rein : batches.get(1)) {
+			for (ReinforcementTuple rein : updates) {
 				setUpdateDataStatement(updateRein, rein.rein, rein.coord);
 				updateRein.addBatch();
 			}
 			logger.info("Batch 1: " + (System.currentTimeMillis() - currentTime) + " ms");
-			logger.info("Batch 1 Size: " + batches.get(1).size());
-			batches.get(1).clear();
+			logger.info("Batch 1 Size: " + updates.size());
 			updateRein.executeBatch();
 			conn.setAutoCommit(true);
+			updates.clear();
 			logger.info("Batch 1 Finish: " + (System.currentTimeMillis() - currentTime) + " ms");
 		} catch (SQLException e) {
-			logger.log(Level.SEVERE, "Failed to update reinforcement in db: ", e);
+			logger.log(Level.SEVERE, "Failed to update reinforcements in db, journaling them to replay on the next "
+					+ "start: ", e);
+			journalUnpersisted(updates);
+		}
+	}
+
+	/**
+	 * Appends writes which could not be persisted at shutdown to the reinforcement journal, so they are replayed on
+	 * the next start like writes lost in a crash. The writes are lost if no journal folder is known
+	 *
+	 * @param writes Writes to keep for the next start
+	 */
+	private void journalUnpersisted(List<ReinforcementTuple> writes) {
+		if (journalFolder == null) {
+			logger.severe("No reinforcement journal available, " + writes.size() + " reinforcement changes are lost");
+			return;
+		}
+		ReinforcementJournal journal = new ReinforcementJournal(logger, journalFolder);
+		try {
+			journal.open();
+		} catch (IOException e) {
+			logger.log(Level.SEVERE, "Failed to open reinforcement journal, " + writes.size()
+					+ " reinforcement changes are lost: ", e);
+			return;
+		}
+		try {
+			for (ReinforcementTuple write : writes) {
+				journal.append(write);
+			}
+		} catch (IOException e) {
+			logger.log(Level.SEVERE, "Failed to journal unpersisted reinforcement changes: ", e);
+		} finally {
+			journal.close(false);
+		}
+	}
+
+	/**
+	 * Sorts coalesced writes into the statements needed to persist them. A replacement is a deletion followed by an
+	 * insert, so deletions always have to be executed before inserts
+	 */
+	private static void splitByType(List<ReinforcementTuple> writes, List<ReinforcementTuple> inserts,
+			List<ReinforcementTuple> updates, List<ReinforcementTuple> deletes) {
+		for (ReinforcementTuple write : writes) {
+			switch (write.type) {
+				case INSERT -> inserts.add(write);
+				case UPDATE -> updates.add(write);
+				case DELETE -> deletes.add(write);
+				case REPLACE -> {
+					deletes.add(write);
+					inserts.add(write);
+				}
+			}
 		}
 	}
 
+	/**
+	 * Persists the given writes within a single transaction as one JDBC batch each for deletions, inserts and
+	 * updates. The writes must be coalesced, so there is at most one per position and their order does not matter
+	 *
+	 * @param writes Writes to persist
+	 * @return False if the writes could not be persisted because the database was not reachable and should be
+	 * retried later, true otherwise
+	 */
+	boolean persistWrites(List<ReinforcementTuple> writes) {
+		if (upsertWidth > 0) {
+			return persistWritesAsUpserts(writes);
+		}
+		List<ReinforcementTuple> inserts = new ArrayList<>();
+		List<ReinforcementTuple> updates = new ArrayList<>();
+		List<ReinforcementTuple> deletes = new ArrayList<>();
+		splitByType(writes, inserts, updates, deletes);
+		try (Connection conn = db.getConnection();
+				PreparedStatement insertRein = conn.prepareStatement(INSERT_REINFORCEMENT);
+				PreparedStatement updateRein = conn.prepareStatement(UPDATE_REINFORCEMENT);
+				PreparedStatement deleteRein = conn.prepareStatement(DELETE_REINFORCEMENT);) {
+			conn.setAutoCommit(false);
+			try {
+				for (ReinforcementTuple write : deletes) {
+					setDeleteDataStatement(deleteRein, write.rein, write.coord);
+					deleteRein.addBatch();
+				}
+				for (ReinforcementTuple write : inserts) {
+					setInsertDataStatement(insertRein, write.rein, write.coord);
+					insertRein.addBatch();
+				}
+				for (ReinforcementTuple write : updates) {
+					setUpdateDataStatement(updateRein, write.rein, write.coord);
+					updateRein.addBatch();
+				}
+				if (!deletes.isEmpty()) {
+					deleteRein.executeBatch();
+				}
+				if (!inserts.isEmpty()) {
+					insertRein.executeBatch();
+				}
+				if (!updates.isEmpty()) {
+					updateRein.executeBatch();
+				}
+				conn.commit();
+			} catch (SQLException e) {
+				conn.rollback();
+				throw e;
+			} finally {
+				conn.setAutoCommit(true);
+			}
+			return true;
+		} catch (BatchUpdateException e) {
+			// the database is reachable, but rejected a row. Retrying the batch would fail forever, so we fall back
+			// to writing each row on its own, which only loses the offending rows just like non batched writes
+			logger.log(Level.WARNING, "Failed to persist batch of reinforcement changes, writing them one by one: ", e);
+			for (ReinforcementTuple write : deletes) {
+				deleteNow(write.rein, write.coord);
+			}
+			for (ReinforcementTuple write : inserts) {
+				insertNow(write.rein, write.coord);
+			}
+			for (ReinforcementTuple write : updates) {
+				updateNow(write.rein, write.coord);
+			}
+			return true;
+		} catch (SQLException e) {
+			logger.log(Level.SEVERE, "Failed to persist batch of reinforcement changes, retrying later: ", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Same as {@link #persistWrites(List)}, but combines inserts and replacements into multi row upserts and deletions
+	 * into multi row deletions, each statement covering up to the configured amount of rows. Updates stay plain
+	 * updates, so they can never bring back a row which was deleted in the meantime
+	 */
+	private boolean persistWritesAsUpserts(List<ReinforcementTuple> writes) {
+		List<ReinforcementTuple> upserts = new ArrayList<>();
+		List<ReinforcementTuple> updates = new ArrayList<>();
+		List<ReinforcementTuple> deletes = new ArrayList<>();
+		for (ReinforcementTuple write : writes) {
+			switch (write.type) {
+				case DELETE -> deletes.add(write);
+				case UPDATE -> updates.add(write);
+				case INSERT, REPLACE -> upserts.add(write);
+			}
+		}
+		try (Connection conn = db.getConnection();
+				PreparedStatement updateRein = conn.prepareStatement(UPDATE_REINFORCEMENT);) {
+			conn.setAutoCommit(false);
+			try {
+				executeMultiRow(conn, deletes, CitadelDAO::buildMultiRowDelete, DELETE_PARAMETERS,
+						CitadelDAO::setDeleteDataStatement);
+				executeMultiRow(conn, upserts, CitadelDAO::buildMultiRowUpsert, INSERT_PARAMETERS,
+						CitadelDAO::setInsertDataStatement);
+				for (ReinforcementTuple write : updates) {
+					setUpdateDataStatement(updateRein, write.rein, write.coord);
+					updateRein.addBatch();
+				}
+				if (!updates.isEmpty()) {
+					updateRein.executeBatch();
+				}
+				conn.commit();
+			} catch (SQLException e) {
+				conn.rollback();
+				throw e;
+			} finally {
+				conn.setAutoCommit(true);
+			}
+			return true;
+		} catch (BatchUpdateException e) {
+			logger.log(Level.WARNING, "Failed to persist batch of reinforcement changes, writing them one by one: ", e);
+			for (ReinforcementTuple write : deletes) {
+				deleteNow(write.rein, write.coord);
+			}
+			for (ReinforcementTuple write : upserts) {
+				upsertNow(write.rein, write.coord);
+			}
+			for (ReinforcementTuple write : updates) {
+				updateNow(write.rein, write.coord);
+			}
+			return true;
+		} catch (SQLException e) {
+			logger.log(Level.SEVERE, "Failed to persist batch of reinforcement changes, retrying later: ", e);
+			return false;
+		}
+	}
+
+	@FunctionalInterface
+	private interface RowBinder {
+		void bind(PreparedStatement statement, int offset, Reinforcement data, XZWCoord coord) throws SQLException;
+	}
+
+	/**
+	 * Writes the given rows with statements covering up to the configured width each. All full width statements
+	 * share one prepared statement and are sent as a single JDBC batch, only the remainder needs its own statement
+	 */
+	private void executeMultiRow(Connection conn, List<ReinforcementTuple> writes, IntFunction<String> statementForRows,
+			int parametersPerRow, RowBinder binder) throws SQLException {
+		int width = Math.max(1, upsertWidth);
+		int fullStatements = writes.size() / width;
+		if (fullStatements > 0) {
+			try (PreparedStatement statement = conn.prepareStatement(statementForRows.apply(width))) {
+				for (int i = 0; i < fullStatements; i++) {
+					for (int row = 0; row < width; row++) {
+						ReinforcementTuple write = writes.get(i * width + row);
+						binder.bind(statement, row * parametersPerRow, write.rein, write.coord);
+					}
+					statement.addBatch();
+				}
+				statement.executeBatch();
+			}
+		}
+		int remainder = writes.size() - fullStatements * width;
+		if (remainder > 0) {
+			try (PreparedStatement statement = conn.prepareStatement(statementForRows.apply(remainder))) {
+				for (int row = 0; row < remainder; row++) {
+					ReinforcementTuple write = writes.get(fullStatements * width + row);
+					binder.bind(statement, row * parametersPerRow, write.rein, write.coord);
+				}
+				statement.addBatch();
+				statement.executeBatch();
+			}
+		}
+	}
+
+	private static String buildMultiRowUpsert(int rows) {
+		StringBuilder sb = new StringBuilder("insert into ctdl_reinforcements (chunk_x, chunk_z, world_id, x_offset, y, "
+				+ "z_offset, type_id, health, group_id, insecure, creation_time) values ");
+		for (int i = 0; i < rows; i++) {
+			if (i != 0) {
+				sb.append(',');
+			}
+			sb.append("(?,?,?, ?,?,?, ?,?,?,?,?)");
+		}
+		sb.append(" on duplicate key update type_id = values(type_id), health = values(health), "
+				+ "group_id = values(group_id), insecure = values(insecure), creation_time = values(creation_time);");
+		return sb.toString();
+	}
+
+	private static String buildMultiRowDelete(int rows) {
+		StringBuilder sb = new StringBuilder(
+				"delete from ctdl_reinforcements where (chunk_x, chunk_z, world_id, x_offset, y, z_offset) in (");
+		for (int i = 0; i < rows; i++) {
+			if (i != 0) {
+				sb.append(',');
+			}
+			sb.append("(?,?,?,?,?,?)");
+		}
+		sb.append(");");
+		return sb.toString();
+	}
+
 	@Override
 	public void registerMigrations() {
 		db.registerMigration(15, false,
@@ -231,6 +751,11 @@ public class CitadelDAO extends TableStorageEngine<Reinforcement> {
 	public Reinforcement getForLocation(int x, int y, int z, short worldID, short pluginID) {
 		int chunkX = BlockBasedChunkMeta.toChunkCoord(x);
 		int chunkZ = BlockBasedChunkMeta.toChunkCoord(z);
+		long chunkKey = toChunkKey(worldID, chunkX, chunkZ);
+		if (isKnownEmpty(chunkKey)) {
+			return null;
+		}
+		flushPendingWrites(chunkKey);
 		ReinforcementTypeManager typeMan = Citadel.getInstance().getReinforcementTypeManager();
 		try (Connection insertConn = db.getConnection();
 				PreparedStatement selectRein = insertConn
@@ -256,9 +781,8 @@ public class CitadelDAO extends TableStorageEngine<Reinforcement> {
 				long creationTime = rs.getTimestamp(3).getTime();
 				float health = rs.getFloat(4);
 				boolean insecure = rs.getBoolean(5);
-				World world = CivModCorePlugin.getInstance().getWorldIdManager().getWorldByInternalID(worldID);
-				Location loc = new Location(world, x, y, z);
-				return new Reinforcement(loc, type, groupID, creationTime, health, insecure, false);
+				return new Reinforcement(worldID, x, y, z, ReinforcementPalette.of(type, groupID, insecure),
+						creationTime, health, false);
 			}
 		} catch (SQLException e) {
 			logger.log(Level.SEVERE, "Failed to load reinforcement from db: ", e);
@@ -268,14 +792,28 @@ public class CitadelDAO extends TableStorageEngine<Reinforcement> {
 
 	@Override
 	public void insert(Reinforcement data, XZWCoord coord) {
+		invalidateCachedChunk(coord);
+		PopulatedChunkIndex index = chunkIndex;
+		if (index != null) {
+			index.add(toChunkKey(coord.getWorldID(), coord.getX(), coord.getZ()));
+		}
+		ReinforcementWriteBehind queue = writeBehind;
+		if (queue != null) {
+			queue.enqueue(new ReinforcementTuple(ReinforcementTuple.WriteType.INSERT, data, coord));
+			return;
+		}
 		if (batchMode) {
-			batches.get(0).add(new ReinforcementTuple(data, coord));
+			batches.add(new ReinforcementTuple(ReinforcementTuple.WriteType.INSERT, data, coord));
 			return;
 		}
+		insertNow(data, coord);
+		// a prefetch of the surrounding chunks may have read the chunk while it was being written
+		invalidateCachedChunk(coord);
+	}
+
+	private void insertNow(Reinforcement data, XZWCoord coord) {
 		try (Connection insertConn = db.getConnection();
-				PreparedStatement insertRein = insertConn.prepareStatement(
-						"insert into ctdl_reinforcements (chunk_x, chunk_z, world_id, x_offset, y, z_offset, type_id, "
-								+ "health, group_id, insecure, creation_time) values(?,?,?, ?,?,?, ?,?,?,?,?);");) {
+				PreparedStatement insertRein = insertConn.prepareStatement(INSERT_REINFORCEMENT);) {
 			setInsertDataStatement(insertRein, data, coord);
 			insertRein.execute();
 		} catch (SQLException e) {
@@ -283,30 +821,54 @@ public class CitadelDAO extends TableStorageEngine<Reinforcement> {
 		}
 	}
 
+	private void upsertNow(Reinforcement data, XZWCoord coord) {
+		try (Connection insertConn = db.getConnection();
+				PreparedStatement upsertRein = insertConn.prepareStatement(buildMultiRowUpsert(1));) {
+			setInsertDataStatement(upsertRein, 0, data, coord);
+			upsertRein.execute();
+		} catch (SQLException e) {
+			logger.log(Level.SEVERE, "Failed to upsert reinforcement into db: ", e);
+		}
+	}
+
 	private static void setInsertDataStatement(PreparedStatement insertRein, Reinforcement data, XZWCoord coord) throws SQLException {
-		insertRein.setInt(1, coord.getX());
-		insertRein.setInt(2, coord.getZ());
-		insertRein.setShort(3, coord.getWorldID());
-		insertRein.setByte(4, (byte) BlockBasedChunkMeta.modulo(data.getLocation().getBlockX()));
-		insertRein.setShort(5, (short) data.getLocation().getBlockY());
-		insertRein.setByte(6, (byte) BlockBasedChunkMeta.modulo(data.getLocation().getBlockZ()));
-		insertRein.setShort(7, data.getType().getID());
-		insertRein.setFloat(8, data.getHealth());
-		insertRein.setInt(9, data.getGroupId());
-		insertRein.setBoolean(10, data.isInsecure());
-		insertRein.setTimestamp(11, new Timestamp(data.getCreationTime()));
+		setInsertDataStatement(insertRein, 0, data, coord);
+	}
+
+	private static void setInsertDataStatement(PreparedStatement insertRein, int offset, Reinforcement data,
+			XZWCoord coord) throws SQLException {
+		insertRein.setInt(offset + 1, coord.getX());
+		insertRein.setInt(offset + 2, coord.getZ());
+		insertRein.setShort(offset + 3, coord.getWorldID());
+		insertRein.setByte(offset + 4, (byte) BlockBasedChunkMeta.modulo(data.getBlockX()));
+		insertRein.setShort(offset + 5, (short) data.getBlockY());
+		insertRein.setByte(offset + 6, (byte) BlockBasedChunkMeta.modulo(data.getBlockZ()));
+		insertRein.setShort(offset + 7, data.getType().getID());
+		insertRein.setFloat(offset + 8, data.getHealth());
+		insertRein.setInt(offset + 9, data.getGroupId());
+		insertRein.setBoolean(offset + 10, data.isInsecure());
+		insertRein.setTimestamp(offset + 11, new Timestamp(data.getCreationTime()));
 	}
 
 	@Override
 	public void update(Reinforcement data, XZWCoord coord) {
+		invalidateCachedChunk(coord);
+		ReinforcementWriteBehind queue = writeBehind;
+		if (queue != null) {
+			queue.enqueue(new ReinforcementTuple(ReinforcementTuple.WriteType.UPDATE, data, coord));
+			return;
+		}
 		if (batchMode) {
-			batches.get(1).add(new ReinforcementTuple(data, coord));
+			batches.add(new ReinforcementTuple(ReinforcementTuple.WriteType.UPDATE, data, coord));
 			return;
 		}
+		updateNow(data, coord);
+		invalidateCachedChunk(coord);
+	}
+
+	private void updateNow(Reinforcement data, XZWCoord coord) {
 		try (Connection insertConn = db.getConnection();
-				PreparedStatement updateRein = insertConn.prepareStatement(
-						"update ctdl_reinforcements set type_id = ?, health = ?, group_id = ?, insecure = ?, creation_time = ? where "
-								+ "chunk_x = ? and chunk_z = ? and world_id = ? and x_offset = ? and y = ? and z_offset = ?;");) {
+				PreparedStatement updateRein = insertConn.prepareStatement(UPDATE_REINFORCEMENT);) {
 			setUpdateDataStatement(updateRein, data, coord);
 			updateRein.execute();
 		} catch (SQLException e) {
@@ -323,21 +885,30 @@ public class CitadelDAO extends TableStorageEngine<Reinforcement> {
 		updateRein.setInt(6, coord.getX());
 		updateRein.setInt(7, coord.getZ());
 		updateRein.setShort(8, coord.getWorldID());
-		updateRein.setByte(9, (byte) BlockBasedChunkMeta.modulo(data.getLocation().getBlockX()));
-		updateRein.setShort(10, (short) data.getLocation().getBlockY());
-		updateRein.setByte(11, (byte) BlockBasedChunkMeta.modulo(data.getLocation().getBlockZ()));
+		updateRein.setByte(9, (byte) BlockBasedChunkMeta.modulo(data.getBlockX()));
+		updateRein.setShort(10, (short) data.getBlockY());
+		updateRein.setByte(11, (byte) BlockBasedChunkMeta.modulo(data.getBlockZ()));
 	}
 
 	@Override
 	public void delete(Reinforcement data, XZWCoord coord) {
+		invalidateCachedChunk(coord);
+		ReinforcementWriteBehind queue = writeBehind;
+		if (queue != null) {
+			queue.enqueue(new ReinforcementTuple(ReinforcementTuple.WriteType.DELETE, data, coord));
+			return;
+		}
 		if (batchMode) {
-			batches.get(2).add(new ReinforcementTuple(data, coord));
+			batches.add(new ReinforcementTuple(ReinforcementTuple.WriteType.DELETE, data, coord));
 			return;
 		}
+		deleteNow(data, coord);
+		invalidateCachedChunk(coord);
+	}
+
+	private void deleteNow(Reinforcement data, XZWCoord coord) {
 		try (Connection insertConn = db.getConnection();
-				PreparedStatement deleteRein = insertConn.prepareStatement(
-						"delete from ctdl_reinforcements where chunk_x = ? and chunk_z = ? and world_id = ? and "
-								+ "x_offset = ? and y = ? and z_offset = ?;");) {
+				PreparedStatement deleteRein = insertConn.prepareStatement(DELETE_REINFORCEMENT);) {
 			setDeleteDataStatement(deleteRein, data, coord);
 			deleteRein.execute();
 		} catch (SQLException e) {
@@ -346,52 +917,215 @@ public class CitadelDAO extends TableStorageEngine<Reinforcement> {
 	}
 
 	private static void setDeleteDataStatement(PreparedStatement deleteRein, Reinforcement data, XZWCoord coord) throws SQLException {
-		deleteRein.setInt(1, coord.getX());
-		deleteRein.setInt(2, coord.getZ());
-		deleteRein.setShort(3, coord.getWorldID());
-		deleteRein.setByte(4, (byte) BlockBasedChunkMeta.modulo(data.getLocation().getBlockX()));
-		deleteRein.setShort(5, (short) data.getLocation().getBlockY());
-		deleteRein.setByte(6, (byte) BlockBasedChunkMeta.modulo(data.getLocation().getBlockZ()));
+		setDeleteDataStatement(deleteRein, 0, data, coord);
+	}
+
+	private static void setDeleteDataStatement(PreparedStatement deleteRein, int offset, Reinforcement data,
+			XZWCoord coord) throws SQLException {
+		deleteRein.setInt(offset + 1, coord.getX());
+		deleteRein.setInt(offset + 2, coord.getZ());
+		deleteRein.setShort(offset + 3, coord.getWorldID());
+		deleteRein.setByte(offset + 4, (byte) BlockBasedChunkMeta.modulo(data.getBlockX()));
+		deleteRein.setShort(offset + 5, (short) data.getBlockY());
+		deleteRein.setByte(offset + 6, (byte) BlockBasedChunkMeta.modulo(data.getBlockZ()));
 	}
 
 	@Override
 	public void fill(TableBasedBlockChunkMeta<Reinforcement> chunkData, Consumer<Reinforcement> insertFunction) {
-		int preMultipliedX = chunkData.getChunkCoord().getX() * 16;
-		int preMultipliedZ = chunkData.getChunkCoord().getZ() * 16;
+		XZWCoord chunkCoord = chunkData.getChunkCoord();
+		long chunkKey = toChunkKey(chunkCoord.getWorldID(), chunkCoord.getX(), chunkCoord.getZ());
+		ReinforcementOccupancy tracker = occupancy;
+		if (tracker == null) {
+			fillChunk(chunkCoord, chunkKey, insertFunction);
+			return;
+		}
+		IntArrayList positions = new IntArrayList();
+		boolean success = fillChunk(chunkCoord, chunkKey, rein -> {
+			positions.add((rein.getBlockY() << 8) | ((rein.getBlockX() & 15) << 4) | (rein.getBlockZ() & 15));
+			insertFunction.accept(rein);
+		});
+		if (success) {
+			tracker.chunkLoaded(chunkKey, positions.toIntArray());
+		}
+	}
+
+	/**
+	 * Hands out all reinforcements in the given chunk, taking them from the database or any cache in front of it
+	 *
+	 * @return True if the chunk was loaded completely
+	 */
+	private boolean fillChunk(XZWCoord chunkCoord, long chunkKey, Consumer<Reinforcement> insertFunction) {
+		if (isKnownEmpty(chunkKey)) {
+			return true;
+		}
 		ReinforcementTypeManager typeMan = Citadel.getInstance().getReinforcementTypeManager();
-		World world = chunkData.getChunkCoord().getWorld();
+		ReinforcementChunkCache cache = chunkCache;
+		if (cache == null) {
+			return loadChunk(chunkCoord, chunkKey, typeMan, insertFunction);
+		}
+		if (cache.fill(chunkKey, chunkCoord.getWorldID(), chunkCoord.getX(), chunkCoord.getZ(), typeMan,
+				insertFunction)) {
+			return true;
+		}
+		List<Reinforcement> loaded = new ArrayList<>();
+		Consumer<Reinforcement> collector = rein -> {
+			loaded.add(rein);
+			insertFunction.accept(rein);
+		};
+		int radius = prefetchRadius;
+		boolean success = radius > 0 ? loadArea(chunkCoord, chunkKey, radius, typeMan, cache, collector)
+				: loadChunk(chunkCoord, chunkKey, typeMan, collector);
+		if (success) {
+			cache.put(chunkKey, loaded);
+		} else {
+			cache.invalidate(chunkKey);
+		}
+		return success;
+	}
+
+	/**
+	 * Loads the reinforcements of a single chunk from the database
+	 *
+	 * @return True if the chunk was loaded successfully
+	 */
+	private boolean loadChunk(XZWCoord chunkCoord, long chunkKey, ReinforcementTypeManager typeMan,
+			Consumer<Reinforcement> insertFunction) {
+		flushPendingWrites(chunkKey);
+		int preMultipliedX = chunkCoord.getX() * 16;
+		int preMultipliedZ = chunkCoord.getZ() * 16;
 		try (Connection insertConn = db.getConnection();
 				PreparedStatement selectRein = insertConn.prepareStatement(
 						"select x_offset, y, z_offset, type_id, group_id, creation_time, health, insecure "
 								+ "from ctdl_reinforcements where chunk_x = ? and chunk_z = ? and world_id = ?;");) {
-			selectRein.setInt(1, chunkData.getChunkCoord().getX());
-			selectRein.setInt(2, chunkData.getChunkCoord().getZ());
-			selectRein.setShort(3, chunkData.getChunkCoord().getWorldID());
+			selectRein.setInt(1, chunkCoord.getX());
+			selectRein.setInt(2, chunkCoord.getZ());
+			selectRein.setShort(3, chunkCoord.getWorldID());
 			try (ResultSet rs = selectRein.executeQuery()) {
 				while (rs.next()) {
-					int xOffset = rs.getByte(1);
-					int x = xOffset + preMultipliedX;
-					int y = rs.getShort(2);
-					int zOffset = rs.getByte(3);
-					int z = zOffset + preMultipliedZ;
-					Location location = new Location(world, x, y, z);
-					short typeID = rs.getShort(4);
-					ReinforcementType type = typeMan.getById(typeID);
-					if (type == null) {
-						logger.log(Level.SEVERE, "Failed to load reinforcement with type id " + typeID);
-						continue;
+					Reinforcement rein = readReinforcement(rs, 1, chunkCoord.getWorldID(), preMultipliedX, preMultipliedZ, typeMan);
+					if (rein != null) {
+						insertFunction.accept(rein);
 					}
-					int groupID = rs.getInt(5);
-					long creationTime = rs.getTimestamp(6).getTime();
-					float health = rs.getFloat(7);
-					boolean insecure = rs.getBoolean(8);
-					Reinforcement rein = new Reinforcement(location, type, groupID, creationTime, health, insecure,
-							false);
-					insertFunction.accept(rein);
 				}
 			}
+			return true;
 		} catch (SQLException e) {
 			logger.log(Level.SEVERE, "Failed to load reinforcement from db: ", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Loads the reinforcements of a chunk along with those of all chunks within the given radius around it with a
+	 * single range query on the reinChunkLookUp index. Surrounding chunks which are neither cached, being loaded,
+	 * known to be empty nor waiting for writes are put into the chunk cache
+	 *
+	 * @return True if the chunk itself was loaded successfully
+	 */
+	private boolean loadArea(XZWCoord center, long centerKey, int radius, ReinforcementTypeManager typeMan,
+			ReinforcementChunkCache cache, Consumer<Reinforcement> insertFunction) {
+		flushPendingWrites(centerKey);
+		short worldID = center.getWorldID();
+		PopulatedChunkIndex index = chunkIndex;
+		LongOpenHashSet prefetched = new LongOpenHashSet();
+		for (int x = center.getX() - radius; x <= center.getX() + radius; x++) {
+			for (int z = center.getZ() - radius; z <= center.getZ() + radius; z++) {
+				long key = toChunkKey(worldID, x, z);
+				if (key == centerKey || (index != null && index.isKnownEmpty(key)) || !cache.startPrefetch(key)) {
+					continue;
+				}
+				// checked after marking the chunk, since any write made from now on drops the mark again
+				if (hasPendingWrites(key)) {
+					cache.cancelLoading(key);
+					continue;
+				}
+				prefetched.add(key);
+			}
+		}
+		Long2ObjectOpenHashMap<List<Reinforcement>> surrounding = new Long2ObjectOpenHashMap<>();
+		try (Connection insertConn = db.getConnection();
+				PreparedStatement selectRein = insertConn.prepareStatement(
+						"select chunk_x, chunk_z, x_offset, y, z_offset, type_id, group_id, creation_time, health, "
+								+ "insecure from ctdl_reinforcements where chunk_x between ? and ? and chunk_z "
+								+ "between ? and ? and world_id = ?;");) {
+			selectRein.setInt(1, center.getX() - radius);
+			selectRein.setInt(2, center.getX() + radius);
+			selectRein.setInt(3, center.getZ() - radius);
+			selectRein.setInt(4, center.getZ() + radius);
+			selectRein.setShort(5, worldID);
+			try (ResultSet rs = selectRein.executeQuery()) {
+				while (rs.next()) {
+					int chunkX = rs.getInt(1);
+					int chunkZ = rs.getInt(2);
+					long key = toChunkKey(worldID, chunkX, chunkZ);
+					// chunks which are cached or loaded elsewhere are skipped
+					if (key != centerKey && !prefetched.contains(key)) {
+						continue;
+					}
+					Reinforcement rein = readReinforcement(rs, 3, worldID, chunkX * 16, chunkZ * 16, typeMan);
+					if (rein == null) {
+						continue;
+					}
+					if (key == centerKey) {
+						insertFunction.accept(rein);
+					} else {
+						surrounding.computeIfAbsent(key, k -> new ArrayList<>()).add(rein);
+					}
+				}
+			}
+		} catch (SQLException e) {
+			logger.log(Level.SEVERE, "Failed to load reinforcements around chunk from db: ", e);
+			LongIterator iter = prefetched.iterator();
+			while (iter.hasNext()) {
+				cache.cancelLoading(iter.nextLong());
+			}
+			return false;
+		}
+		LongIterator iter = prefetched.iterator();
+		while (iter.hasNext()) {
+			long key = iter.nextLong();
+			cache.putPrefetched(key, surrounding.getOrDefault(key, Collections.emptyList()));
+		}
+		return true;
+	}
+
+	/**
+	 * Reads a reinforcement from the current row, which has to contain x_offset, y, z_offset, type_id, group_id,
+	 * creation_time, health and insecure in this order
+	 *
+	 * @param firstColumn Index of the x_offset column
+	 * @return Loaded reinforcement or null if its type does not exist anymore
+	 */
+	private Reinforcement readReinforcement(ResultSet rs, int firstColumn, short worldID, int preMultipliedX,
+			int preMultipliedZ, ReinforcementTypeManager typeMan) throws SQLException {
+		int xOffset = rs.getByte(firstColumn);
+		int x = xOffset + preMultipliedX;
+		int y = rs.getShort(firstColumn + 1);
+		int zOffset = rs.getByte(firstColumn + 2);
+		int z = zOffset + preMultipliedZ;
+		short typeID = rs.getShort(firstColumn + 3);
+		ReinforcementType type = typeMan.getById(typeID);
+		if (type == null) {
+			logger.log(Level.SEVERE, "Failed to load reinforcement with type id " + typeID);
+			return null;
+		}
+		int groupID = rs.getInt(firstColumn + 4);
+		long creationTime = rs.getTimestamp(firstColumn + 5).getTime();
+		float health = rs.getFloat(firstColumn + 6);
+		boolean insecure = rs.getBoolean(firstColumn + 7);
+		return new Reinforcement(worldID, x, y, z, ReinforcementPalette.of(type, groupID, insecure), creationTime,
+				health, false);
+	}
+
+	private boolean hasPendingWrites(long chunkKey) {
+		ReinforcementWriteBehind queue = writeBehind;
+		return queue != null && queue.hasPending(chunkKey);
+	}
+
+	private void flushPendingWrites(long chunkKey) {
+		ReinforcementWriteBehind queue = writeBehind;
+		if (queue != null) {
+			queue.flushIfPending(chunkKey);
 		}
 	}
 
@@ -418,14 +1152,4 @@ public class CitadelDAO extends TableStorageEngine<Reinforcement> {
 	public boolean stayLoaded() {
 		return false;
 	}
-
-	private class ReinforcementTuple {
-		private Reinforcement rein;
-		private XZWCoord coord;
-
-		ReinforcementTuple(Reinforcement rein, XZWCoord coord) {
-			this.rein = rein;
-			this.coord = coord;
-		}
-	}
 }
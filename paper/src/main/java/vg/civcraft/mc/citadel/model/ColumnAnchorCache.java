@@ -0,0 +1,196 @@
+package vg.civcraft.mc.citadel.model;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+/**
+ * Remembers the block anchoring vertical plant columns, such as sugar cane, kelp, vines or dripstone, so protection
+ * checks on the same column do not scan it again. Every block column of a chunk holds at most one entry, covering
+ * the blocks between the anchor and the farthest block scanned from. Entries are dropped whenever a block in their
+ * column changes, see {@link #invalidate(World, int, int)}. Only accessed from the main thread
+ * <p>
+ * Not every block change fires an event, so hits are checked against the world: the anchor must not be part of the
+ * column and both the block next to the anchor and the block next to the start must be. This catches columns which
+ * grew or were cut at either end, but not a block replaced in the middle of a long column without an event
+ */
+public class ColumnAnchorCache {
+
+	private static final int SCAN_BUCKETS = 9;
+
+	private final Map<UUID, Long2ObjectOpenHashMap<ChunkColumns>> worlds;
+	private final long[] scanLengths;
+	private long hits;
+	private long misses;
+	private long invalidations;
+	private int columns;
+
+	public ColumnAnchorCache() {
+		this.worlds = new HashMap<>();
+		this.scanLengths = new long[SCAN_BUCKETS];
+	}
+
+	/**
+	 * Finds the first block in the given direction, which is neither of the given type nor its companion
+	 *
+	 * @param world     World the column is in
+	 * @param x         X coordinate of the column
+	 * @param y         Y coordinate of the block to start from, which is excluded from the scan
+	 * @param z         Z coordinate of the column
+	 * @param step      1 to scan upwards, -1 to scan downwards
+	 * @param type      Type of the column
+	 * @param companion Type which continues the column, may be the type itself
+	 * @return Y coordinate of the anchor block
+	 */
+	public int findAnchor(World world, int x, int y, int z, int step, Material type, Material companion) {
+		ChunkColumns chunk = getChunk(world, x >> 4, z >> 4, false);
+		int index = ((x & 15) << 4) | (z & 15);
+		if (chunk != null && chunk.contains(index, y, step)) {
+			int anchor = chunk.anchors[index];
+			if (!isColumn(world.getType(x, anchor, z), type, companion)
+					&& (anchor - step == y || isColumn(world.getType(x, anchor - step, z), type, companion))
+					&& (y + step == anchor || isColumn(world.getType(x, y + step, z), type, companion))) {
+				hits++;
+				return anchor;
+			}
+			// column changed without us noticing
+			chunk.remove(index);
+			columns--;
+		}
+		misses++;
+		int scanY = y + step;
+		int length = 1;
+		int anchor;
+		while (true) {
+			if (chunk != null && chunk.contains(index, scanY, step)) {
+				// ran into a known part of the column
+				anchor = chunk.anchors[index];
+				break;
+			}
+			Material current = world.getType(x, scanY, z);
+			if (current != type && current != companion) {
+				anchor = scanY;
+				break;
+			}
+			scanY += step;
+			length++;
+		}
+		scanLengths[Math.min(31 - Integer.numberOfLeadingZeros(length), SCAN_BUCKETS - 1)]++;
+		if (chunk == null) {
+			chunk = getChunk(world, x >> 4, z >> 4, true);
+		}
+		if (chunk.steps[index] == 0) {
+			columns++;
+		}
+		chunk.put(index, anchor, y, step);
+		return anchor;
+	}
+
+	/**
+	 * Drops the entry of the given block column, must be called whenever a block in it changes
+	 */
+	public void invalidate(World world, int x, int z) {
+		ChunkColumns chunk = getChunk(world, x >> 4, z >> 4, false);
+		if (chunk == null) {
+			return;
+		}
+		int index = ((x & 15) << 4) | (z & 15);
+		if (chunk.steps[index] == 0) {
+			return;
+		}
+		chunk.remove(index);
+		columns--;
+		invalidations++;
+	}
+
+	public void chunkUnloaded(World world, int chunkX, int chunkZ) {
+		Long2ObjectOpenHashMap<ChunkColumns> chunks = worlds.get(world.getUID());
+		if (chunks == null) {
+			return;
+		}
+		ChunkColumns chunk = chunks.remove(toChunkKey(chunkX, chunkZ));
+		if (chunk != null) {
+			columns -= chunk.size;
+		}
+	}
+
+	public ColumnCacheStat getStat() {
+		ColumnCacheStat stat = new ColumnCacheStat();
+		for (Long2ObjectMap<ChunkColumns> chunks : worlds.values()) {
+			stat.chunks += chunks.size();
+		}
+		stat.columns = columns;
+		stat.hits = hits;
+		stat.misses = misses;
+		stat.invalidations = invalidations;
+		stat.scanLengths = scanLengths.clone();
+		return stat;
+	}
+
+	private static boolean isColumn(Material current, Material type, Material companion) {
+		return current == type || current == companion;
+	}
+
+	private ChunkColumns getChunk(World world, int chunkX, int chunkZ, boolean create) {
+		Long2ObjectOpenHashMap<ChunkColumns> chunks = worlds.get(world.getUID());
+		if (chunks == null) {
+			if (!create) {
+				return null;
+			}
+			chunks = new Long2ObjectOpenHashMap<>();
+			worlds.put(world.getUID(), chunks);
+		}
+		long key = toChunkKey(chunkX, chunkZ);
+		ChunkColumns chunk = chunks.get(key);
+		if (chunk == null && create) {
+			chunk = new ChunkColumns();
+			chunks.put(key, chunk);
+		}
+		return chunk;
+	}
+
+	private static long toChunkKey(int chunkX, int chunkZ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+
+	private static final class ChunkColumns {
+
+		private final int[] anchors = new int[256];
+		// block of the column farthest away from the anchor
+		private final int[] ends = new int[256];
+		// scan direction, 0 if there is no entry
+		private final byte[] steps = new byte[256];
+		private int size;
+
+		private boolean contains(int index, int y, int step) {
+			if (steps[index] != step) {
+				return false;
+			}
+			if (step < 0) {
+				return y > anchors[index] && y <= ends[index];
+			}
+			return y < anchors[index] && y >= ends[index];
+		}
+
+		private void put(int index, int anchor, int end, int step) {
+			if (steps[index] == 0) {
+				size++;
+			} else if (steps[index] == step && anchors[index] == anchor) {
+				// keep the farther end when extending a known column
+				end = step < 0 ? Math.max(end, ends[index]) : Math.min(end, ends[index]);
+			}
+			anchors[index] = anchor;
+			ends[index] = end;
+			steps[index] = (byte) step;
+		}
+
+		private void remove(int index) {
+			steps[index] = 0;
+			size--;
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package vg.civcraft.mc.citadel.model;
+
+public class ColumnCacheStat {
+	public int chunks;
+	public int columns;
+	public long hits;
+	public long misses;
+	public long invalidations;
+	/**
+	 * Amount of scans by length, bucket i counts scans which visited between 2^i and 2^(i+1) - 1 blocks, the last
+	 * bucket counts all longer scans
+	 */
+	public long[] scanLengths;
+}
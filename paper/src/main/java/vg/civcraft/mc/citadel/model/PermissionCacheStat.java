@@ -0,0 +1,12 @@
+package vg.civcraft.mc.citadel.model;
+
+public class PermissionCacheStat {
+	public int size;
+	public int maxSize;
+	public long hits;
+	public long misses;
+	public long evictions;
+	public long expirations;
+	public long invalidations;
+	public long rejected;
+}
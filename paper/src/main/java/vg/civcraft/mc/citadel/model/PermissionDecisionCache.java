@@ -0,0 +1,148 @@
+package vg.civcraft.mc.citadel.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import vg.civcraft.mc.namelayer.GroupManager;
+import vg.civcraft.mc.namelayer.GroupManager.PlayerType;
+import vg.civcraft.mc.namelayer.NameAPI;
+import vg.civcraft.mc.namelayer.group.Group;
+import vg.civcraft.mc.namelayer.permission.GroupPermission;
+import vg.civcraft.mc.namelayer.permission.PermissionType;
+
+/**
+ * Remembers the outcome of NameLayer permission checks for reinforcement groups, so repeated interactions with the
+ * same reinforcements do not look up the group and its admin bypass again. Bounded in size with least recently used
+ * entries being evicted first. The cache is cleared on the group events NameLayer fires and entries expire after a
+ * short time.
+ * <p>
+ * Removing a member or changing the permissions of a rank fires no event, so every hit is checked against the
+ * player's current rank in the group and the permissions of that rank, see
+ * {@link #isGrantedByRank(Group, UUID, PermissionType)}. Decisions which no longer match are made again. Only a
+ * change to the admin bypass, which is a server permission and not part of the group, is noticed no earlier than
+ * the expiry
+ */
+public class PermissionDecisionCache {
+
+	private record Key(int groupId, UUID player, PermissionType permission) {
+	}
+
+	private static final class Decision {
+		private final boolean allowed;
+		// null if the group does not exist
+		private final Group group;
+		private final long expires;
+
+		private Decision(boolean allowed, Group group, long expires) {
+			this.allowed = allowed;
+			this.group = group;
+			this.expires = expires;
+		}
+	}
+
+	private final int maxSize;
+	private final long ttlMs;
+	private final LinkedHashMap<Key, Decision> decisions;
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long expirations;
+	private long invalidations;
+	private long rejected;
+
+	public PermissionDecisionCache(int maxSize, long ttlMs) {
+		this.maxSize = maxSize;
+		this.ttlMs = ttlMs;
+		this.decisions = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Decision> eldest) {
+				if (size() > PermissionDecisionCache.this.maxSize) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Checks whether the given player has the given permission on the given group, answering from the cache if
+	 * possible
+	 *
+	 * @param groupId    Id of the group to check
+	 * @param player     UUID of the player to check
+	 * @param permission Permission to check
+	 * @return True if the player has the permission, false if not or if the group does not exist
+	 */
+	public synchronized boolean hasAccess(int groupId, UUID player, PermissionType permission) {
+		Key key = new Key(groupId, player, permission);
+		long now = System.currentTimeMillis();
+		Decision decision = decisions.get(key);
+		if (decision != null) {
+			if (decision.expires <= now) {
+				expirations++;
+			} else if (isGrantedByRank(decision.group, player, permission) == decision.allowed) {
+				hits++;
+				return decision.allowed;
+			} else {
+				rejected++;
+			}
+		}
+		misses++;
+		Group group = GroupManager.getGroup(groupId);
+		boolean allowed = group != null && NameAPI.getGroupManager().hasAccess(group, player, permission);
+		if (allowed != isGrantedByRank(group, player, permission)) {
+			// granted by the admin bypass, which would not pass the check on hits anyway
+			decisions.remove(key);
+			return allowed;
+		}
+		decisions.put(key, new Decision(allowed, group, now + ttlMs));
+		return allowed;
+	}
+
+	/**
+	 * Checks whether the player's current rank in the group grants the permission, without the admin bypass NameLayer
+	 * applies on top. Only reads NameLayer's in memory state of the group, so it is cheap enough to recheck remembered
+	 * decisions with on every use
+	 *
+	 * @param group      Group to check, may be null
+	 * @param player     UUID of the player to check
+	 * @param permission Permission to check
+	 * @return True if the player's rank has the permission, false if not or if the group is null
+	 */
+	public static boolean isGrantedByRank(Group group, UUID player, PermissionType permission) {
+		if (group == null) {
+			return false;
+		}
+		PlayerType rank = group.getPlayerType(player);
+		if (rank == null) {
+			return false;
+		}
+		GroupPermission permissions = NameAPI.getGroupManager().getPermissionforGroup(group);
+		return permissions != null && permissions.hasPermission(rank, permission);
+	}
+
+	/**
+	 * Drops all cached decisions, must be called whenever memberships or permissions of any group may have changed
+	 */
+	public synchronized void invalidateAll() {
+		if (decisions.isEmpty()) {
+			return;
+		}
+		decisions.clear();
+		invalidations++;
+	}
+
+	public synchronized PermissionCacheStat getStat() {
+		PermissionCacheStat stat = new PermissionCacheStat();
+		stat.size = decisions.size();
+		stat.maxSize = maxSize;
+		stat.hits = hits;
+		stat.misses = misses;
+		stat.evictions = evictions;
+		stat.expirations = expirations;
+		stat.invalidations = invalidations;
+		stat.rejected = rejected;
+		return stat;
+	}
+}
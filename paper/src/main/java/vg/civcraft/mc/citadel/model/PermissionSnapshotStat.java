@@ -0,0 +1,10 @@
+package vg.civcraft.mc.citadel.model;
+
+public class PermissionSnapshotStat {
+	public int snapshots;
+	public long answered;
+	public long fallbacks;
+	public long builds;
+	public long invalidations;
+	public long rejected;
+}
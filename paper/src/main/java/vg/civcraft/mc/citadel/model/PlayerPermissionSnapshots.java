@@ -0,0 +1,284 @@
+package vg.civcraft.mc.citadel.model;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import vg.civcraft.mc.namelayer.GroupManager;
+import vg.civcraft.mc.namelayer.NameAPI;
+import vg.civcraft.mc.namelayer.NameLayerPlugin;
+import vg.civcraft.mc.namelayer.group.Group;
+import vg.civcraft.mc.namelayer.permission.PermissionType;
+
+/**
+ * Keeps for every online player a bitmask of Citadel's own permissions per group the player is a member of, so
+ * permission checks on those groups are a hash lookup and a bit test. The player's group names are loaded
+ * asynchronously on login, the masks themselves are computed on the main thread, since NameLayer's group cache is not
+ * thread safe. Snapshots are rebuilt when NameLayer announces group changes or when they get older than the configured
+ * maximum age. Checks for groups the player is not a member of, for permissions not known to the snapshot or while the
+ * snapshot is being built are left to NameLayer, since non-members may still be granted permissions.
+ * <p>
+ * NameLayer fires no event when a member is removed or the permissions of a rank change, so every answer is checked
+ * against the player's current rank in the group and the permissions of that rank, see
+ * {@link PermissionDecisionCache#isGrantedByRank(Group, UUID, PermissionType)}. A snapshot which no longer matches is
+ * dropped and built again. Only a change to the admin bypass is noticed no earlier than the maximum age
+ */
+public class PlayerPermissionSnapshots {
+
+	/**
+	 * @param mask     Permissions the player has on the group, one bit per permission
+	 * @param rankMask Permissions the player's rank grants, which excludes the admin bypass
+	 */
+	private record GroupMasks(Group group, int mask, int rankMask) {
+	}
+
+	private static final class Snapshot {
+		// never modified after being published
+		private final Int2ObjectOpenHashMap<GroupMasks> groups;
+		private final long created;
+
+		private Snapshot(Int2ObjectOpenHashMap<GroupMasks> groups, long created) {
+			this.groups = groups;
+			this.created = created;
+		}
+	}
+
+	private final Plugin plugin;
+	private final Logger logger;
+	// index in this array is the bit used for a permission
+	private final PermissionType[] permissions;
+	private final long maxAgeMs;
+	private final Map<UUID, Snapshot> snapshots;
+	private final Set<UUID> building;
+	// incremented on every invalidation, so builds started before it are discarded
+	private final AtomicLong generation;
+	private final AtomicLong answered;
+	private final AtomicLong fallbacks;
+	private final AtomicLong builds;
+	private final AtomicLong invalidations;
+	private final AtomicLong rejected;
+
+	public PlayerPermissionSnapshots(Plugin plugin, Logger logger, PermissionType[] permissions, long maxAgeMs) {
+		if (permissions.length > Integer.SIZE) {
+			throw new IllegalArgumentException("Can not track more than " + Integer.SIZE + " permissions");
+		}
+		this.plugin = plugin;
+		this.logger = logger;
+		this.permissions = permissions.clone();
+		this.maxAgeMs = maxAgeMs;
+		this.snapshots = new ConcurrentHashMap<>();
+		this.building = ConcurrentHashMap.newKeySet();
+		this.generation = new AtomicLong();
+		this.answered = new AtomicLong();
+		this.fallbacks = new AtomicLong();
+		this.builds = new AtomicLong();
+		this.invalidations = new AtomicLong();
+		this.rejected = new AtomicLong();
+	}
+
+	/**
+	 * Answers a permission check from the players snapshot if possible
+	 *
+	 * @param player     UUID of the player to check
+	 * @param groupId    Id of the group to check
+	 * @param permission Permission to check
+	 * @return Whether the player has the permission or null if the snapshot can not tell
+	 */
+	public Boolean hasAccess(UUID player, int groupId, PermissionType permission) {
+		Snapshot snapshot = snapshots.get(player);
+		if (snapshot == null) {
+			fallbacks.incrementAndGet();
+			return null;
+		}
+		if (System.currentTimeMillis() - snapshot.created > maxAgeMs) {
+			snapshots.remove(player, snapshot);
+			rebuild(player);
+			fallbacks.incrementAndGet();
+			return null;
+		}
+		int bit = getBit(permission);
+		GroupMasks masks = bit < 0 ? null : snapshot.groups.get(groupId);
+		if (masks == null) {
+			fallbacks.incrementAndGet();
+			return null;
+		}
+		if (!matchesRank(masks, player, bit)) {
+			rejected.incrementAndGet();
+			snapshots.remove(player, snapshot);
+			rebuild(player);
+			fallbacks.incrementAndGet();
+			return null;
+		}
+		answered.incrementAndGet();
+		return (masks.mask & (1 << bit)) != 0;
+	}
+
+	/**
+	 * Collects the ids of all groups the player is a member of and has the given permission on from the players
+	 * snapshot, if possible. May be called from any thread, including while the plugin is disabling. Never schedules a
+	 * rebuild, outdated snapshots and those which no longer match the player's ranks are left to
+	 * {@link #hasAccess(UUID, int, PermissionType)}
+	 *
+	 * @param player     UUID of the player to check
+	 * @param permission Permission to check
+	 * @param groupIds   Set to add the group ids to
+	 * @return True if the snapshot could answer, false if the caller has to ask NameLayer instead, in which case
+	 *         nothing was added
+	 */
+	public boolean collectGroupsWithAccess(UUID player, PermissionType permission, IntSet groupIds) {
+		Snapshot snapshot = snapshots.get(player);
+		if (snapshot == null) {
+			fallbacks.incrementAndGet();
+			return false;
+		}
+		if (System.currentTimeMillis() - snapshot.created > maxAgeMs) {
+			fallbacks.incrementAndGet();
+			return false;
+		}
+		int bit = getBit(permission);
+		if (bit < 0) {
+			fallbacks.incrementAndGet();
+			return false;
+		}
+		// nothing may be added if the snapshot turns out to be outdated
+		IntArrayList granted = new IntArrayList();
+		ObjectIterator<Int2ObjectMap.Entry<GroupMasks>> iterator = snapshot.groups.int2ObjectEntrySet().fastIterator();
+		while (iterator.hasNext()) {
+			Int2ObjectMap.Entry<GroupMasks> entry = iterator.next();
+			GroupMasks masks = entry.getValue();
+			if ((masks.mask & (1 << bit)) == 0) {
+				continue;
+			}
+			if (!matchesRank(masks, player, bit)) {
+				rejected.incrementAndGet();
+				fallbacks.incrementAndGet();
+				return false;
+			}
+			granted.add(entry.getIntKey());
+		}
+		groupIds.addAll(granted);
+		answered.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Builds the snapshot of the given player asynchronously, unless it is already being built
+	 */
+	public void rebuild(UUID player) {
+		// tasks can not be scheduled anymore while the plugin is disabling
+		if (!plugin.isEnabled() || !building.add(player)) {
+			return;
+		}
+		long startGeneration = generation.get();
+		// only the group names come from the database, NameLayer's group cache must only be used on the main thread
+		Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+			List<String> groupNames;
+			try {
+				groupNames = NameLayerPlugin.getGroupManagerDao().getGroupNames(player);
+			} catch (Exception e) {
+				logger.log(Level.SEVERE, "Failed to load groups for permission snapshot of " + player + ": ", e);
+				building.remove(player);
+				return;
+			}
+			if (!plugin.isEnabled()) {
+				building.remove(player);
+				return;
+			}
+			Bukkit.getScheduler().runTask(plugin, () -> {
+				try {
+					if (generation.get() == startGeneration && Bukkit.getPlayer(player) != null) {
+						snapshots.put(player, build(player, groupNames));
+					}
+				} catch (Exception e) {
+					logger.log(Level.SEVERE, "Failed to build permission snapshot for " + player + ": ", e);
+				} finally {
+					building.remove(player);
+				}
+			});
+		});
+	}
+
+	public void remove(UUID player) {
+		snapshots.remove(player);
+	}
+
+	/**
+	 * Drops all snapshots and rebuilds them for all online players, must be called whenever memberships or
+	 * permissions of any group may have changed
+	 */
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		snapshots.clear();
+		invalidations.incrementAndGet();
+		// builds in progress are discarded, so they can not be relied on to block new ones
+		building.clear();
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			rebuild(player.getUniqueId());
+		}
+	}
+
+	public PermissionSnapshotStat getStat() {
+		PermissionSnapshotStat stat = new PermissionSnapshotStat();
+		stat.snapshots = snapshots.size();
+		stat.answered = answered.get();
+		stat.fallbacks = fallbacks.get();
+		stat.builds = builds.get();
+		stat.invalidations = invalidations.get();
+		stat.rejected = rejected.get();
+		return stat;
+	}
+
+	private Snapshot build(UUID player, List<String> groupNames) {
+		long created = System.currentTimeMillis();
+		Int2ObjectOpenHashMap<GroupMasks> groups = new Int2ObjectOpenHashMap<>();
+		for (String groupName : groupNames) {
+			Group group = GroupManager.getGroup(groupName);
+			if (group == null) {
+				continue;
+			}
+			int mask = 0;
+			int rankMask = 0;
+			for (int i = 0; i < permissions.length; i++) {
+				if (NameAPI.getGroupManager().hasAccess(group, player, permissions[i])) {
+					mask |= 1 << i;
+				}
+				if (PermissionDecisionCache.isGrantedByRank(group, player, permissions[i])) {
+					rankMask |= 1 << i;
+				}
+			}
+			groups.put(group.getGroupId(), new GroupMasks(group, mask, rankMask));
+		}
+		builds.incrementAndGet();
+		return new Snapshot(groups, created);
+	}
+
+	/**
+	 * @return True if the player's rank in the group still grants the given permission exactly when it did while the
+	 *         snapshot was built
+	 */
+	private boolean matchesRank(GroupMasks masks, UUID player, int bit) {
+		boolean granted = PermissionDecisionCache.isGrantedByRank(masks.group, player, permissions[bit]);
+		return granted == ((masks.rankMask & (1 << bit)) != 0);
+	}
+
+	private int getBit(PermissionType permission) {
+		for (int i = 0; i < permissions.length; i++) {
+			if (permissions[i] == permission) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,60 @@
+package vg.civcraft.mc.citadel.model;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+/**
+ * Keeps track of all chunks which contain at least one reinforcement, so loading chunks without any reinforcements
+ * does not require a database query. Until the initial load from the database is complete, every chunk is assumed to
+ * be populated.
+ * <p>
+ * Chunks are only ever added. Deleting a reinforcement does not tell us whether it was the last one in its chunk and
+ * wrongly considering a chunk empty would make its reinforcements disappear, while wrongly considering it populated
+ * only costs a query. Chunks emptied during runtime drop out of the index on the next restart.
+ */
+class PopulatedChunkIndex {
+
+	private final LongOpenHashSet chunks;
+	private volatile boolean ready;
+
+	PopulatedChunkIndex() {
+		this.chunks = new LongOpenHashSet();
+	}
+
+	/**
+	 * Merges the chunks loaded from the database into the index and starts answering queries with it
+	 *
+	 * @param loaded Keys of all chunks containing reinforcements in the database
+	 */
+	void initialize(LongOpenHashSet loaded) {
+		synchronized (this) {
+			chunks.addAll(loaded);
+			chunks.trim();
+		}
+		ready = true;
+	}
+
+	synchronized void add(long chunkKey) {
+		chunks.add(chunkKey);
+	}
+
+	/**
+	 * @param chunkKey Key of the chunk, see {@link CitadelDAO#toChunkKey(short, int, int)}
+	 * @return True if the chunk is guaranteed to not contain any reinforcements
+	 */
+	boolean isKnownEmpty(long chunkKey) {
+		if (!ready) {
+			return false;
+		}
+		synchronized (this) {
+			return !chunks.contains(chunkKey);
+		}
+	}
+
+	boolean isReady() {
+		return ready;
+	}
+
+	synchronized int size() {
+		return chunks.size();
+	}
+}
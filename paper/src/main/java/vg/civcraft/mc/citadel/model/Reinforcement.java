@@ -3,10 +3,12 @@ package vg.civcraft.mc.citadel.model;
 import java.util.Random;
 import java.util.UUID;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
+import vg.civcraft.mc.citadel.Citadel;
 import vg.civcraft.mc.citadel.reinforcementtypes.ReinforcementType;
+import vg.civcraft.mc.civmodcore.CivModCorePlugin;
 import vg.civcraft.mc.civmodcore.world.locations.chunkmeta.block.table.TableBasedDataObject;
-import vg.civcraft.mc.namelayer.GroupManager;
 import vg.civcraft.mc.namelayer.NameAPI;
 import vg.civcraft.mc.namelayer.group.Group;
 import vg.civcraft.mc.namelayer.permission.PermissionType;
@@ -16,10 +18,9 @@ public class Reinforcement extends TableBasedDataObject {
 	private static Random rng = new Random();
 
 	private long creationTime;
-	private ReinforcementType type;
+	// type, group and insecure flag, shared with all reinforcements which have the same ones
+	private ReinforcementPalette palette;
 	private float health;
-	private int groupId;
-	private boolean insecure;
 
 	public Reinforcement(Location loc, ReinforcementType type, Group group) {
 		this(loc, type, group.getGroupId(), System.currentTimeMillis(), type.getHealth(), false, true);
@@ -31,11 +32,64 @@ public class Reinforcement extends TableBasedDataObject {
 		if (type == null) {
 			throw new IllegalArgumentException("Reinforcement type for reinforcement can not be null");
 		}
-		this.type = type;
+		this.palette = ReinforcementPalette.of(type, groupID, insecure);
 		this.creationTime = creationTime;
 		this.health = health;
-		this.groupId = groupID;
-		this.insecure = insecure;
+	}
+
+	Reinforcement(short worldID, int x, int y, int z, ReinforcementPalette palette, long creationTime, float health,
+			boolean isNew) {
+		super(new Location(CivModCorePlugin.getInstance().getWorldIdManager().getWorldByInternalID(worldID), x, y, z),
+				isNew);
+		this.palette = palette;
+		this.creationTime = creationTime;
+		this.health = health;
+	}
+
+	private Reinforcement(Reinforcement other) {
+		super(other.location.clone(), false);
+		this.palette = other.palette;
+		this.creationTime = other.creationTime;
+		this.health = other.health;
+	}
+
+	/**
+	 * @return Detached copy of the persisted state of this reinforcement, which is not affected by later changes
+	 */
+	Reinforcement copyForStorage() {
+		return new Reinforcement(this);
+	}
+
+	/**
+	 * @return X-coordinate of the reinforced block
+	 */
+	public int getBlockX() {
+		return location.getBlockX();
+	}
+
+	/**
+	 * @return Y-coordinate of the reinforced block
+	 */
+	public int getBlockY() {
+		return location.getBlockY();
+	}
+
+	/**
+	 * @return Z-coordinate of the reinforced block
+	 */
+	public int getBlockZ() {
+		return location.getBlockZ();
+	}
+
+	/**
+	 * @return Internal CivModCore id of the world the reinforcement is in, looked up from the world on every call
+	 */
+	public short getWorldID() {
+		return CivModCorePlugin.getInstance().getWorldIdManager().getInternalWorldId(location.getWorld());
+	}
+
+	public World getWorld() {
+		return location.getWorld();
 	}
 
 	/**
@@ -56,14 +110,29 @@ public class Reinforcement extends TableBasedDataObject {
 	 * @return Group this reinforcement is under
 	 */
 	public Group getGroup() {
-		return GroupManager.getGroup(groupId);
+		return palette.getGroup();
+	}
+
+	/**
+	 * Drops the groups cached for all reinforcements, must be called whenever groups are deleted, merged or renamed
+	 */
+	public static void invalidateCachedGroups() {
+		ReinforcementPalette.invalidateGroups();
+	}
+
+	/**
+	 * Drops the shared type, group and insecure combinations of all reinforcements, must be called once all
+	 * reinforcements are unloaded and before reinforcement types are reloaded
+	 */
+	public static void clearPalette() {
+		ReinforcementPalette.clear();
 	}
 
 	/**
 	 * @return Id of the group this reinforcement is under
 	 */
 	public int getGroupId() {
-		return groupId;
+		return palette.getGroupId();
 	}
 
 	/**
@@ -86,11 +155,18 @@ public class Reinforcement extends TableBasedDataObject {
 		return copy;
 	}
 
+	/**
+	 * @return Shared type, group and insecure flag of this reinforcement
+	 */
+	ReinforcementPalette getPalette() {
+		return palette;
+	}
+
 	/**
 	 * @return Type of this reinforcement
 	 */
 	public ReinforcementType getType() {
-		return type;
+		return palette.getType();
 	}
 	
 	/**
@@ -103,6 +179,17 @@ public class Reinforcement extends TableBasedDataObject {
 		if (permission == null) {
 			throw new IllegalArgumentException("PermissionType may not be null");
 		}
+		PlayerPermissionSnapshots snapshots = Citadel.getInstance().getPermissionSnapshots();
+		if (snapshots != null) {
+			Boolean allowed = snapshots.hasAccess(uuid, palette.getGroupId(), permission);
+			if (allowed != null) {
+				return allowed;
+			}
+		}
+		PermissionDecisionCache cache = Citadel.getInstance().getPermissionCache();
+		if (cache != null) {
+			return cache.hasAccess(palette.getGroupId(), uuid, permission);
+		}
 		Group g = getGroup();
 		if (g == null) {
 			return false;
@@ -136,7 +223,7 @@ public class Reinforcement extends TableBasedDataObject {
 	 *         restrictions on hoppers etc.
 	 */
 	public boolean isInsecure() {
-		return insecure;
+		return palette.isInsecure();
 	}
 
 	/**
@@ -145,15 +232,16 @@ public class Reinforcement extends TableBasedDataObject {
 	 *         reinforcements creation
 	 */
 	public boolean isMature() {
-		return System.currentTimeMillis() - creationTime > type.getMaturationTime();
+		return System.currentTimeMillis() - creationTime > palette.getType().getMaturationTime();
 	}
 
 	public void setGroup(Group group) {
 		if (group == null) {
 			throw new IllegalArgumentException("Group can not be set to null for a reinforcement");
 		}
-		this.groupId = group.getGroupId();
+		this.palette = palette.withGroupId(group.getGroupId());
 		setDirty();
+		notifyTransferCache();
 	}
 
 	/**
@@ -167,6 +255,7 @@ public class Reinforcement extends TableBasedDataObject {
 			if (getOwningCache() != null) {
 				getOwningCache().remove(this);
 			}
+			notifyTransferCache();
 		}
 		else {
 			setDirty();
@@ -174,7 +263,7 @@ public class Reinforcement extends TableBasedDataObject {
 	}
 
 	public void setType(ReinforcementType type) {
-		this.type = type;
+		this.palette = palette.withType(type);
 		setDirty();
 	}
 
@@ -182,8 +271,20 @@ public class Reinforcement extends TableBasedDataObject {
 	 * Switches the insecure flag of the reinforcement
 	 */
 	public void toggleInsecure() {
-		insecure = !insecure;
+		this.palette = palette.withInsecure(!palette.isInsecure());
 		setDirty();
+		notifyTransferCache();
+	}
+
+	/**
+	 * Invalidates cached hopper transfer decisions involving this reinforcement, must be called whenever it is
+	 * created, broken or changes group or insecure flag
+	 */
+	public void notifyTransferCache() {
+		TransferDecisionCache cache = Citadel.getInstance().getTransferCache();
+		if (cache != null) {
+			cache.blockChanged(getWorldID(), getBlockX(), getBlockZ());
+		}
 	}
 	
 	/**
@@ -201,6 +302,7 @@ public class Reinforcement extends TableBasedDataObject {
 	 * @return Whether to return the reinforcement item or not
 	 */
 	public boolean rollForItemReturn() {
+		ReinforcementType type = palette.getType();
 		double baseChance = type.getReturnChance();
 		double relativeHealth = health / type.getHealth();
 		baseChance *= relativeHealth;
@@ -0,0 +1,226 @@
+package vg.civcraft.mc.citadel.model;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import vg.civcraft.mc.citadel.reinforcementtypes.ReinforcementTypeManager;
+
+/**
+ * Keeps compact copies of the reinforcements of recently loaded chunks, so a chunk which is unloaded and loaded again
+ * shortly after does not have to be queried from the database again. The least recently used chunks are evicted once
+ * the memory budget is exceeded.
+ * <p>
+ * Any write for a chunk drops it from the cache, which keeps the cache consistent with the database without having to
+ * mirror each change. Chunks only receive writes if something in them changed, so chunks players merely walk through
+ * stay cached.
+ */
+class ReinforcementChunkCache {
+
+	private static final int ENTRY_OVERHEAD_BYTES = 160;
+	// position, palette index and creation time
+	private static final int BYTES_PER_REINFORCEMENT = 14;
+
+	/**
+	 * Reinforcements of a single chunk, stored like a Minecraft chunk section: a palette of the distinct
+	 * type/group/insecure combinations in the chunk plus an index into it per reinforcement. Health is only stored if
+	 * at least one reinforcement in the chunk is damaged
+	 */
+	private static final class CachedChunk {
+		private final ReinforcementPalette[] palette;
+		// y << 8 | x offset << 4 | z offset
+		private final int[] positions;
+		private final char[] paletteIndices;
+		private final long[] creationTimes;
+		// null if every reinforcement is at full health
+		private final float[] health;
+
+		private CachedChunk(List<Reinforcement> reinforcements) {
+			int size = reinforcements.size();
+			this.positions = new int[size];
+			this.paletteIndices = new char[size];
+			this.creationTimes = new long[size];
+			Object2IntOpenHashMap<ReinforcementPalette> paletteLookup = new Object2IntOpenHashMap<>();
+			paletteLookup.defaultReturnValue(-1);
+			List<ReinforcementPalette> paletteList = new ArrayList<>();
+			float[] healthValues = null;
+			for (int i = 0; i < size; i++) {
+				Reinforcement rein = reinforcements.get(i);
+				positions[i] = (rein.getBlockY() << 8) | ((rein.getBlockX() & 15) << 4) | (rein.getBlockZ() & 15);
+				ReinforcementPalette entry = rein.getPalette();
+				int index = paletteLookup.getInt(entry);
+				if (index == -1) {
+					index = paletteList.size();
+					paletteList.add(entry);
+					paletteLookup.put(entry, index);
+				}
+				paletteIndices[i] = (char) index;
+				creationTimes[i] = rein.getCreationTime();
+				if (rein.getHealth() != entry.getType().getHealth()) {
+					if (healthValues == null) {
+						healthValues = new float[size];
+						for (int k = 0; k < i; k++) {
+							healthValues[k] = reinforcements.get(k).getHealth();
+						}
+					}
+				}
+				if (healthValues != null) {
+					healthValues[i] = rein.getHealth();
+				}
+			}
+			this.palette = paletteList.toArray(new ReinforcementPalette[0]);
+			this.health = healthValues;
+		}
+
+		private long sizeBytes() {
+			return ENTRY_OVERHEAD_BYTES + (long) palette.length * 4
+					+ (long) positions.length * (health == null ? BYTES_PER_REINFORCEMENT : BYTES_PER_REINFORCEMENT + 4);
+		}
+	}
+
+	private final Logger logger;
+	private final long maxSizeBytes;
+
+	// everything below is guarded by this
+	private final LinkedHashMap<Long, CachedChunk> chunks;
+	// chunks currently being loaded from the database, a write during the load removes the chunk from here so the
+	// possibly outdated result is not cached
+	private final LongOpenHashSet loading;
+	private long sizeBytes;
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long invalidations;
+	private long prefetched;
+
+	ReinforcementChunkCache(Logger logger, long maxSizeBytes) {
+		this.logger = logger;
+		this.maxSizeBytes = maxSizeBytes;
+		this.chunks = new LinkedHashMap<>(1024, 0.75f, true);
+		this.loading = new LongOpenHashSet();
+	}
+
+	/**
+	 * Hands out fresh reinforcements for a cached chunk. If the chunk is not cached, it is marked as loading and the
+	 * caller is expected to call {@link #put(long, List)} with the reinforcements loaded from the database
+	 *
+	 * @param chunkKey       Key of the chunk, see {@link CitadelDAO#toChunkKey(short, int, int)}
+	 * @param worldID        Internal CivModCore id of the world the chunk is in
+	 * @param chunkX         X-coordinate of the chunk
+	 * @param chunkZ         Z-coordinate of the chunk
+	 * @param typeMan        Used to look up reinforcement types
+	 * @param insertFunction Receives every reinforcement in the chunk
+	 * @return True if the chunk was cached
+	 */
+	boolean fill(long chunkKey, short worldID, int chunkX, int chunkZ, ReinforcementTypeManager typeMan,
+			Consumer<Reinforcement> insertFunction) {
+		CachedChunk cached;
+		synchronized (this) {
+			cached = chunks.get(chunkKey);
+			if (cached == null) {
+				misses++;
+				loading.add(chunkKey);
+				return false;
+			}
+			hits++;
+		}
+		int preMultipliedX = chunkX * 16;
+		int preMultipliedZ = chunkZ * 16;
+		for (int i = 0; i < cached.positions.length; i++) {
+			ReinforcementPalette entry = cached.palette[cached.paletteIndices[i]];
+			if (typeMan.getById(entry.getType().getID()) != entry.getType()) {
+				// types were reloaded since the chunk was cached
+				logger.log(Level.SEVERE, "Failed to load reinforcement with type id " + entry.getType().getID());
+				continue;
+			}
+			int position = cached.positions[i];
+			float health = cached.health == null ? entry.getType().getHealth() : cached.health[i];
+			insertFunction.accept(new Reinforcement(worldID, preMultipliedX + ((position >> 4) & 15), position >> 8,
+					preMultipliedZ + (position & 15), entry, cached.creationTimes[i], health, false));
+		}
+		return true;
+	}
+
+	/**
+	 * Caches the reinforcements loaded for a chunk, unless the chunk was written to while loading
+	 *
+	 * @param chunkKey       Key of the chunk
+	 * @param reinforcements All reinforcements in the chunk as loaded from the database
+	 */
+	synchronized void put(long chunkKey, List<Reinforcement> reinforcements) {
+		if (!loading.remove(chunkKey)) {
+			return;
+		}
+		CachedChunk cached = new CachedChunk(reinforcements);
+		CachedChunk previous = chunks.put(chunkKey, cached);
+		if (previous != null) {
+			sizeBytes -= previous.sizeBytes();
+		}
+		sizeBytes += cached.sizeBytes();
+		Iterator<CachedChunk> iter = chunks.values().iterator();
+		while (sizeBytes > maxSizeBytes && iter.hasNext()) {
+			CachedChunk eldest = iter.next();
+			iter.remove();
+			sizeBytes -= eldest.sizeBytes();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Marks a chunk which is loaded along with a neighbouring one as loading, unless it is already cached or being
+	 * loaded by someone else. The caller has to either {@link #putPrefetched(long, List)} its reinforcements or
+	 * {@link #cancelLoading(long)} afterwards
+	 *
+	 * @param chunkKey Key of the chunk
+	 * @return True if the chunk was marked and should be loaded
+	 */
+	synchronized boolean startPrefetch(long chunkKey) {
+		return !chunks.containsKey(chunkKey) && loading.add(chunkKey);
+	}
+
+	/**
+	 * Same as {@link #put(long, List)}, for chunks marked through {@link #startPrefetch(long)}
+	 */
+	synchronized void putPrefetched(long chunkKey, List<Reinforcement> reinforcements) {
+		if (loading.contains(chunkKey)) {
+			prefetched++;
+		}
+		put(chunkKey, reinforcements);
+	}
+
+	synchronized void cancelLoading(long chunkKey) {
+		loading.remove(chunkKey);
+	}
+
+	/**
+	 * Drops the given chunk from the cache, must be called for every write to it
+	 *
+	 * @param chunkKey Key of the chunk
+	 */
+	synchronized void invalidate(long chunkKey) {
+		loading.remove(chunkKey);
+		CachedChunk removed = chunks.remove(chunkKey);
+		if (removed != null) {
+			sizeBytes -= removed.sizeBytes();
+			invalidations++;
+		}
+	}
+
+	synchronized ChunkCacheStat getStat() {
+		ChunkCacheStat stat = new ChunkCacheStat();
+		stat.chunks = chunks.size();
+		stat.sizeBytes = sizeBytes;
+		stat.maxSizeBytes = maxSizeBytes;
+		stat.hits = hits;
+		stat.misses = misses;
+		stat.evictions = evictions;
+		stat.invalidations = invalidations;
+		stat.prefetched = prefetched;
+		return stat;
+	}
+}
@@ -0,0 +1,210 @@
+package vg.civcraft.mc.citadel.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import vg.civcraft.mc.civmodcore.world.locations.chunkmeta.block.BlockBasedChunkMeta;
+
+/**
+ * Append only log of all reinforcement writes handed to the write behind queue. Every write is appended before it is
+ * queued, so writes which were queued, but not yet persisted when the server crashed can be replayed on the next
+ * start.
+ * <p>
+ * The journal is split into segments. At the start of each flush the current segment is sealed and a new one started,
+ * once the flush persisted everything queued, all sealed segments are deleted. Records are handed to the operating
+ * system immediately, which makes them survive the JVM crashing or being killed, but they are not forced to disk.
+ */
+class ReinforcementJournal {
+
+	static final byte INSERT = 0;
+	static final byte UPDATE = 1;
+	static final byte DELETE = 2;
+
+	private static final String PREFIX = "journal-";
+	private static final String SUFFIX = ".bin";
+	private static final int RECORD_SIZE = 34;
+	private static final int CHECKSUM_SIZE = 8;
+
+	/**
+	 * A single journaled write, as read back during replay
+	 */
+	record Entry(byte op, short worldID, int chunkX, int chunkZ, byte xOffset, short y, byte zOffset, short typeID,
+			float health, int groupID, boolean insecure, long creationTime) {
+
+		ReinforcementKey getKey() {
+			return new ReinforcementKey(worldID, chunkX * 16 + xOffset, y, chunkZ * 16 + zOffset);
+		}
+	}
+
+	private final Logger logger;
+	private final File folder;
+	private final ByteBuffer buffer;
+	private final CRC32 crc;
+	private final List<File> sealedSegments;
+	private File currentSegment;
+	private FileChannel channel;
+	private int nextSegmentId;
+
+	ReinforcementJournal(Logger logger, File folder) {
+		this.logger = logger;
+		this.folder = folder;
+		this.buffer = ByteBuffer.allocate(RECORD_SIZE + CHECKSUM_SIZE);
+		this.crc = new CRC32();
+		this.sealedSegments = new ArrayList<>();
+	}
+
+	void open() throws IOException {
+		Files.createDirectories(folder.toPath());
+		for (File segment : listSegments(folder)) {
+			nextSegmentId = Math.max(nextSegmentId, segmentId(segment) + 1);
+		}
+		startSegment();
+	}
+
+	void append(ReinforcementTuple write) throws IOException {
+		byte op = switch (write.type) {
+			case INSERT -> INSERT;
+			case UPDATE, REPLACE -> UPDATE;
+			case DELETE -> DELETE;
+		};
+		Reinforcement rein = write.rein;
+		buffer.clear();
+		buffer.put(op);
+		buffer.putShort(write.coord.getWorldID());
+		buffer.putInt(write.coord.getX());
+		buffer.putInt(write.coord.getZ());
+		buffer.put((byte) BlockBasedChunkMeta.modulo(rein.getBlockX()));
+		buffer.putShort((short) rein.getBlockY());
+		buffer.put((byte) BlockBasedChunkMeta.modulo(rein.getBlockZ()));
+		buffer.putShort(rein.getType().getID());
+		buffer.putFloat(rein.getHealth());
+		buffer.putInt(rein.getGroupId());
+		buffer.put((byte) (rein.isInsecure() ? 1 : 0));
+		buffer.putLong(rein.getCreationTime());
+		crc.reset();
+		crc.update(buffer.array(), 0, RECORD_SIZE);
+		buffer.putLong(crc.getValue());
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Seals the current segment and starts a new one. Every write appended before this call is contained in a sealed
+	 * segment
+	 */
+	void rotate() throws IOException {
+		channel.close();
+		sealedSegments.add(currentSegment);
+		startSegment();
+	}
+
+	/**
+	 * Deletes all sealed segments, must only be called once every write in them is persisted
+	 */
+	void deleteSealed() {
+		for (File segment : sealedSegments) {
+			if (!segment.delete()) {
+				logger.warning("Failed to delete reinforcement journal segment " + segment.getName());
+			}
+		}
+		sealedSegments.clear();
+	}
+
+	/**
+	 * @param deleteAll Whether every write in the journal is persisted, in which case all segments are deleted
+	 */
+	void close(boolean deleteAll) {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			logger.log(Level.SEVERE, "Failed to close reinforcement journal: ", e);
+		}
+		if (deleteAll) {
+			sealedSegments.add(currentSegment);
+			deleteSealed();
+		}
+	}
+
+	private void startSegment() throws IOException {
+		currentSegment = new File(folder, PREFIX + nextSegmentId++ + SUFFIX);
+		channel = FileChannel.open(currentSegment.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Reads all journaled writes in the order they were made. Reading a segment stops at the first incomplete or
+	 * corrupted record, which can only be the last one written before a crash
+	 *
+	 * @param logger Logger to report corrupted segments to
+	 * @param folder Folder containing the journal
+	 * @return All entries in the journal
+	 */
+	static List<Entry> readAll(Logger logger, File folder) throws IOException {
+		List<Entry> entries = new ArrayList<>();
+		ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE + CHECKSUM_SIZE);
+		CRC32 crc = new CRC32();
+		for (File segment : listSegments(folder)) {
+			byte[] content = Files.readAllBytes(segment.toPath());
+			int offset = 0;
+			while (offset + RECORD_SIZE + CHECKSUM_SIZE <= content.length) {
+				crc.reset();
+				crc.update(content, offset, RECORD_SIZE);
+				record.clear();
+				record.put(content, offset, RECORD_SIZE + CHECKSUM_SIZE);
+				record.flip();
+				if (record.getLong(RECORD_SIZE) != crc.getValue()) {
+					break;
+				}
+				entries.add(new Entry(record.get(), record.getShort(), record.getInt(), record.getInt(), record.get(),
+						record.getShort(), record.get(), record.getShort(), record.getFloat(), record.getInt(),
+						record.get() != 0, record.getLong()));
+				offset += RECORD_SIZE + CHECKSUM_SIZE;
+			}
+			if (offset != content.length) {
+				logger.warning("Reinforcement journal segment " + segment.getName() + " ends with "
+						+ (content.length - offset) + " bytes of incomplete or corrupted data, which were skipped");
+			}
+		}
+		return entries;
+	}
+
+	static void deleteAll(Logger logger, File folder) {
+		for (File segment : listSegments(folder)) {
+			if (!segment.delete()) {
+				logger.warning("Failed to delete reinforcement journal segment " + segment.getName());
+			}
+		}
+	}
+
+	private static List<File> listSegments(File folder) {
+		File[] files = folder.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+		if (files == null) {
+			return new ArrayList<>();
+		}
+		List<File> segments = new ArrayList<>(Arrays.asList(files));
+		segments.removeIf(f -> segmentId(f) < 0);
+		segments.sort(Comparator.comparingInt(ReinforcementJournal::segmentId));
+		return segments;
+	}
+
+	private static int segmentId(File segment) {
+		String name = segment.getName();
+		try {
+			return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,7 @@
+package vg.civcraft.mc.citadel.model;
+
+/**
+ * Identifies a reinforcement by its position, which is equivalent to the primary key of the reinforcement table
+ */
+record ReinforcementKey(short worldID, int x, int y, int z) {
+}
@@ -0,0 +1,279 @@
+package vg.civcraft.mc.citadel.model;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import vg.civcraft.mc.civmodcore.CivModCorePlugin;
+
+/**
+ * Keeps a bitmap per 16x16x16 chunk section with one bit per block which may be reinforced, so looking up a block
+ * without a reinforcement, which most lookups are, can be answered without touching the chunk meta data.
+ * <p>
+ * Bits are set when a chunk is loaded from storage and when a reinforcement is created, but are not cleared when a
+ * reinforcement is removed. A set bit only means the block has to be looked up, a cleared bit means it is certainly
+ * not reinforced. Chunks which are not tracked are always looked up, so the bitmap can never hide a reinforcement.
+ * <p>
+ * The bitmap itself is only accessed from the main thread. Updates from other threads, most importantly chunks loaded
+ * asynchronously, are queued and applied once per tick by {@link #applyPendingUpdates()}. Until then the chunk is not
+ * tracked and its blocks are looked up. While a reinforcement placed from another thread is waiting to be applied,
+ * every block is looked up, since its chunk may already be tracked.
+ */
+public class ReinforcementOccupancy {
+
+	private record SectionRange(int minSection, int sectionCount) {
+	}
+
+	// used for worlds CivModCore does not know, covers the default overworld height
+	private static final SectionRange DEFAULT_RANGE = new SectionRange(-4, 24);
+
+	private record ChunkLoad(long chunkKey, int[] positions) {
+	}
+
+	private record Placement(long chunkKey, int x, int y, int z) {
+	}
+
+	private static final class ChunkOccupancy {
+		private final int minSection;
+		// 64 longs covering 4096 blocks each, null for sections without any reinforcements
+		private final long[][] sections;
+		// whether a reinforcement outside of the tracked height was ever set
+		private boolean outsideSections;
+
+		private ChunkOccupancy(SectionRange range) {
+			this.minSection = range.minSection;
+			this.sections = new long[range.sectionCount][];
+		}
+
+		private void set(int x, int y, int z) {
+			int section = (y >> 4) - minSection;
+			if (section < 0 || section >= sections.length) {
+				outsideSections = true;
+				return;
+			}
+			long[] bits = sections[section];
+			if (bits == null) {
+				bits = new long[64];
+				sections[section] = bits;
+			}
+			int index = ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+			bits[index >> 6] |= 1L << index;
+		}
+
+		private boolean mayContain(int x, int y, int z) {
+			int section = (y >> 4) - minSection;
+			if (section < 0 || section >= sections.length) {
+				// outside of the height we track, so we do not know
+				return true;
+			}
+			long[] bits = sections[section];
+			if (bits == null) {
+				return false;
+			}
+			int index = ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+			return (bits[index >> 6] & (1L << index)) != 0;
+		}
+
+		private boolean isEmpty() {
+			if (outsideSections) {
+				return false;
+			}
+			for (long[] bits : sections) {
+				if (bits != null) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private final Long2ObjectOpenHashMap<ChunkOccupancy> chunks;
+	// placements in chunks which are not tracked yet, merged in once they are
+	private final Long2ObjectOpenHashMap<ChunkOccupancy> untrackedPlacements;
+	private final Queue<Object> pendingUpdates;
+	// placements from other threads which are queued, but not applied yet
+	private final AtomicInteger pendingPlacements;
+	// section range of each world, by internal CivModCore world id
+	private final Short2ObjectOpenHashMap<SectionRange> sectionRanges;
+	// lookups mostly hit the same chunk as the previous one, only tracked chunks are remembered
+	private long lastChunkKey;
+	private ChunkOccupancy lastChunk;
+
+	public ReinforcementOccupancy() {
+		this.chunks = new Long2ObjectOpenHashMap<>();
+		this.untrackedPlacements = new Long2ObjectOpenHashMap<>();
+		this.pendingUpdates = new ConcurrentLinkedQueue<>();
+		this.pendingPlacements = new AtomicInteger();
+		this.sectionRanges = new Short2ObjectOpenHashMap<>();
+	}
+
+	/**
+	 * Starts tracking a chunk whose reinforcements were completely loaded from storage. May be called from any thread
+	 *
+	 * @param chunkKey  Key of the chunk, see {@link CitadelDAO#toChunkKey(short, int, int)}
+	 * @param positions Position of every reinforcement in the chunk as y << 8 | x offset << 4 | z offset
+	 */
+	public void chunkLoaded(long chunkKey, int[] positions) {
+		pendingUpdates.add(new ChunkLoad(chunkKey, positions));
+	}
+
+	/**
+	 * Marks a block as reinforced. May be called from any thread
+	 */
+	public void reinforcementPlaced(short worldID, int x, int y, int z) {
+		long chunkKey = CitadelDAO.toChunkKey(worldID, x >> 4, z >> 4);
+		if (Bukkit.isPrimaryThread()) {
+			setPlaced(chunkKey, x, y, z);
+			return;
+		}
+		// counted before queueing, so lookups never see the placement missing from both
+		pendingPlacements.incrementAndGet();
+		pendingUpdates.add(new Placement(chunkKey, x, y, z));
+	}
+
+	/**
+	 * Stops tracking a chunk, must be called from the main thread when the chunk unloads
+	 */
+	public void chunkUnloaded(short worldID, int chunkX, int chunkZ) {
+		applyPendingUpdates();
+		long chunkKey = CitadelDAO.toChunkKey(worldID, chunkX, chunkZ);
+		chunks.remove(chunkKey);
+		untrackedPlacements.remove(chunkKey);
+		if (lastChunk != null && lastChunkKey == chunkKey) {
+			lastChunk = null;
+		}
+	}
+
+	/**
+	 * @return False if the block is certainly not reinforced, true if it has to be looked up
+	 */
+	public boolean mayBeReinforced(short worldID, int x, int y, int z) {
+		if (!Bukkit.isPrimaryThread() || pendingPlacements.get() != 0) {
+			return true;
+		}
+		ChunkOccupancy chunk = getTrackedChunk(CitadelDAO.toChunkKey(worldID, x >> 4, z >> 4));
+		if (chunk == null) {
+			return true;
+		}
+		return chunk.mayContain(x, y, z);
+	}
+
+	/**
+	 * @return False if the chunk certainly contains no reinforcements at all, true if its blocks have to be looked up
+	 */
+	public boolean mayHaveReinforcements(short worldID, int chunkX, int chunkZ) {
+		if (!Bukkit.isPrimaryThread() || pendingPlacements.get() != 0) {
+			return true;
+		}
+		ChunkOccupancy chunk = getTrackedChunk(CitadelDAO.toChunkKey(worldID, chunkX, chunkZ));
+		if (chunk == null) {
+			return true;
+		}
+		return !chunk.isEmpty();
+	}
+
+	/**
+	 * Sets the height tracked for chunks of a world loaded afterwards. Otherwise it is taken from the world itself
+	 * once the first of its chunks is tracked
+	 *
+	 * @param minHeight Lowest block y-coordinate of the world, inclusive
+	 * @param maxHeight Highest block y-coordinate of the world, exclusive
+	 */
+	public void setWorldHeight(short worldID, int minHeight, int maxHeight) {
+		int minSection = minHeight >> 4;
+		sectionRanges.put(worldID, new SectionRange(minSection, ((maxHeight - 1) >> 4) - minSection + 1));
+	}
+
+	/**
+	 * @return Amount of chunks currently tracked
+	 */
+	public int getTrackedChunkCount() {
+		return chunks.size();
+	}
+
+	private ChunkOccupancy getTrackedChunk(long chunkKey) {
+		if (lastChunk != null && lastChunkKey == chunkKey) {
+			return lastChunk;
+		}
+		ChunkOccupancy chunk = chunks.get(chunkKey);
+		if (chunk != null) {
+			lastChunkKey = chunkKey;
+			lastChunk = chunk;
+		}
+		return chunk;
+	}
+
+	private ChunkOccupancy createChunk(long chunkKey) {
+		// the world id is stored in the highest 16 bits of the key
+		short worldID = (short) (chunkKey >>> 48);
+		SectionRange range = sectionRanges.get(worldID);
+		if (range == null) {
+			World world = CivModCorePlugin.getInstance().getWorldIdManager().getWorldByInternalID(worldID);
+			if (world == null) {
+				return new ChunkOccupancy(DEFAULT_RANGE);
+			}
+			setWorldHeight(worldID, world.getMinHeight(), world.getMaxHeight());
+			range = sectionRanges.get(worldID);
+		}
+		return new ChunkOccupancy(range);
+	}
+
+	private void setPlaced(long chunkKey, int x, int y, int z) {
+		ChunkOccupancy chunk = chunks.get(chunkKey);
+		if (chunk == null) {
+			// the chunk may still be loading, in which case the loaded data might not contain this reinforcement
+			chunk = untrackedPlacements.get(chunkKey);
+			if (chunk == null) {
+				chunk = createChunk(chunkKey);
+				untrackedPlacements.put(chunkKey, chunk);
+			}
+		}
+		chunk.set(x, y, z);
+	}
+
+	/**
+	 * Applies all updates made from other threads, must be called from the main thread once per tick
+	 */
+	public void applyPendingUpdates() {
+		Object update;
+		while ((update = pendingUpdates.poll()) != null) {
+			if (update instanceof ChunkLoad load) {
+				ChunkOccupancy chunk = createChunk(load.chunkKey);
+				for (int position : load.positions) {
+					chunk.set((position >> 4) & 15, position >> 8, position & 15);
+				}
+				ChunkOccupancy previous = chunks.put(load.chunkKey, chunk);
+				if (lastChunk != null && lastChunkKey == load.chunkKey) {
+					lastChunk = null;
+				}
+				if (previous == null) {
+					previous = untrackedPlacements.remove(load.chunkKey);
+				}
+				if (previous != null) {
+					// keep bits of reinforcements placed while the chunk was loading
+					chunk.outsideSections |= previous.outsideSections;
+					for (int section = 0; section < chunk.sections.length; section++) {
+						long[] old = previous.sections[section];
+						if (old == null) {
+							continue;
+						}
+						long[] bits = chunk.sections[section];
+						if (bits == null) {
+							chunk.sections[section] = old;
+							continue;
+						}
+						for (int i = 0; i < 64; i++) {
+							bits[i] |= old[i];
+						}
+					}
+				}
+			} else if (update instanceof Placement placement) {
+				setPlaced(placement.chunkKey, placement.x, placement.y, placement.z);
+				pendingPlacements.decrementAndGet();
+			}
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package vg.civcraft.mc.citadel.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import vg.civcraft.mc.citadel.reinforcementtypes.ReinforcementType;
+import vg.civcraft.mc.namelayer.GroupManager;
+import vg.civcraft.mc.namelayer.group.Group;
+
+/**
+ * Immutable combination of the properties most reinforcements share with their neighbours: type, group and whether
+ * they are insecure. Instances are interned, so a city built from a few reinforcement types on a few groups only
+ * needs a handful of them, no matter how many reinforcements it consists of. Reinforcements reference their palette
+ * entry instead of holding these properties themselves.
+ */
+final class ReinforcementPalette {
+
+	private static final Map<ReinforcementPalette, ReinforcementPalette> interned = new ConcurrentHashMap<>();
+	// incremented whenever groups may have been deleted, merged or renamed, which makes all cached groups stale
+	private static volatile int groupEpoch;
+
+	private record CachedGroup(Group group, int epoch) {
+	}
+
+	private final ReinforcementType type;
+	private final int groupId;
+	private final boolean insecure;
+	private final int hash;
+	private volatile CachedGroup cachedGroup;
+
+	private ReinforcementPalette(ReinforcementType type, int groupId, boolean insecure) {
+		this.type = type;
+		this.groupId = groupId;
+		this.insecure = insecure;
+		// computed by hand, Objects.hash would box all three values on every lookup
+		int h = type.getID();
+		h = 31 * h + groupId;
+		this.hash = 31 * h + Boolean.hashCode(insecure);
+	}
+
+	/**
+	 * @return Shared palette entry with the given properties
+	 */
+	static ReinforcementPalette of(ReinforcementType type, int groupId, boolean insecure) {
+		ReinforcementPalette key = new ReinforcementPalette(type, groupId, insecure);
+		ReinforcementPalette existing = interned.putIfAbsent(key, key);
+		return existing == null ? key : existing;
+	}
+
+	/**
+	 * Forgets all palette entries, must be called whenever reinforcement types are reloaded, as entries reference the
+	 * type instances they were created with
+	 */
+	static void clear() {
+		interned.clear();
+	}
+
+	/**
+	 * @return Amount of distinct palette entries in use
+	 */
+	static int size() {
+		return interned.size();
+	}
+
+	ReinforcementType getType() {
+		return type;
+	}
+
+	int getGroupId() {
+		return groupId;
+	}
+
+	/**
+	 * @return Group with this entries group id, resolved once and reused until groups change or it becomes invalid
+	 */
+	Group getGroup() {
+		CachedGroup cached = cachedGroup;
+		if (cached != null && cached.epoch == groupEpoch && cached.group != null && cached.group.isValid()) {
+			return cached.group;
+		}
+		int epoch = groupEpoch;
+		Group group = GroupManager.getGroup(groupId);
+		if (group != null) {
+			cachedGroup = new CachedGroup(group, epoch);
+		}
+		return group;
+	}
+
+	/**
+	 * Makes all palette entries resolve their group again on next access
+	 */
+	static synchronized void invalidateGroups() {
+		groupEpoch++;
+	}
+
+	boolean isInsecure() {
+		return insecure;
+	}
+
+	ReinforcementPalette withType(ReinforcementType type) {
+		return of(type, groupId, insecure);
+	}
+
+	ReinforcementPalette withGroupId(int groupId) {
+		return of(type, groupId, insecure);
+	}
+
+	ReinforcementPalette withInsecure(boolean insecure) {
+		return of(type, groupId, insecure);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof ReinforcementPalette other)) {
+			return false;
+		}
+		return type == other.type && groupId == other.groupId && insecure == other.insecure;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+}
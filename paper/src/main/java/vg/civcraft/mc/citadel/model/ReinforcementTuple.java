@@ -0,0 +1,90 @@
+package vg.civcraft.mc.citadel.model;
+
+import vg.civcraft.mc.civmodcore.world.locations.chunkmeta.XZWCoord;
+
+/**
+ * A reinforcement write which has been handed to the DAO, but not yet persisted
+ */
+class ReinforcementTuple {
+
+	enum WriteType {
+		INSERT, UPDATE, DELETE,
+		/**
+		 * A row is known to exist in the database and has to be overwritten, meaning it is deleted and inserted again
+		 */
+		REPLACE
+	}
+
+	final WriteType type;
+	// copy of the reinforcement when the write was made, never the live one
+	final Reinforcement rein;
+	final XZWCoord coord;
+
+	/**
+	 * @param rein Reinforcement to write, its current state is copied, since it may keep changing on the main thread
+	 *             until the write is persisted
+	 */
+	ReinforcementTuple(WriteType type, Reinforcement rein, XZWCoord coord) {
+		this(type, coord, rein.copyForStorage());
+	}
+
+	private ReinforcementTuple(WriteType type, XZWCoord coord, Reinforcement snapshot) {
+		this.type = type;
+		this.rein = snapshot;
+		this.coord = coord;
+	}
+
+	/**
+	 * Combines two writes to the same position into one with the same effect on the database
+	 *
+	 * @param older Write which was made first
+	 * @param newer Write which was made after the older one
+	 * @return Single write equivalent to both writes or null if they cancel each other out
+	 */
+	static ReinforcementTuple merge(ReinforcementTuple older, ReinforcementTuple newer) {
+		WriteType type = mergeTypes(older.type, newer.type);
+		if (type == null) {
+			return null;
+		}
+		return new ReinforcementTuple(type, newer.coord, newer.rein);
+	}
+
+	/**
+	 * @param older Type of the write which was made first
+	 * @param newer Type of the write which was made after the older one
+	 * @return Type of the single write equivalent to both writes or null if they cancel each other out
+	 */
+	static WriteType mergeTypes(WriteType older, WriteType newer) {
+		return switch (older) {
+			case INSERT -> switch (newer) {
+				// the row never made it into the database
+				case DELETE -> null;
+				case REPLACE -> WriteType.REPLACE;
+				default -> WriteType.INSERT;
+			};
+			case UPDATE -> newer == WriteType.INSERT ? WriteType.REPLACE : newer;
+			case DELETE -> switch (newer) {
+				// an update of a deleted row changes nothing, turning it into a write which creates the row would
+				// bring the deleted reinforcement back
+				case DELETE, UPDATE -> WriteType.DELETE;
+				case INSERT, REPLACE -> WriteType.REPLACE;
+			};
+			// the row exists afterwards, so a later update overwrites it as well
+			case REPLACE -> newer == WriteType.DELETE ? WriteType.DELETE : WriteType.REPLACE;
+		};
+	}
+
+	/**
+	 * @return Key identifying the position this write belongs to
+	 */
+	ReinforcementKey getKey() {
+		return new ReinforcementKey(coord.getWorldID(), rein.getBlockX(), rein.getBlockY(), rein.getBlockZ());
+	}
+
+	/**
+	 * @return Key identifying the chunk this write belongs to
+	 */
+	long getChunkKey() {
+		return CitadelDAO.toChunkKey(coord.getWorldID(), coord.getX(), coord.getZ());
+	}
+}
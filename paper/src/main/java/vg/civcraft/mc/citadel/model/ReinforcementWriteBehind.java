@@ -0,0 +1,207 @@
+package vg.civcraft.mc.citadel.model;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects reinforcement writes handed to the DAO and persists them from a background thread in batches, which are
+ * bounded both in size and in how long a write may wait. Threads unloading chunks only enqueue and never wait on
+ * the database. Writes to the same position are coalesced while they wait, so only the final state is written.
+ */
+class ReinforcementWriteBehind {
+
+	private final Logger logger;
+	private final CitadelDAO dao;
+	private final long flushIntervalMs;
+	private final int maxBatchSize;
+	private final ScheduledExecutorService scheduler;
+	private final AtomicBoolean flushRequested;
+	// held for the entire duration of a flush, so callers of flush() know all writes queued before have been handled
+	private final Object flushLock;
+	// may be null, accessed while holding this
+	private final ReinforcementJournal journal;
+
+	// everything below is guarded by this
+	private final ReinforcementWriteBuffer queue;
+	// chunks of writes taken out of the queue, but not yet committed
+	private final Map<Long, Integer> inFlightChunks;
+	private long flushCount;
+	private long failedFlushCount;
+	private long rowsFlushed;
+	private long lastFlushRows;
+	private long maxFlushRows;
+	private long lastFlushTimeNano;
+	private long flushSumNano;
+	private long flushMaxTimeNano;
+
+	ReinforcementWriteBehind(Logger logger, CitadelDAO dao, long flushIntervalMs, int maxBatchSize,
+			ReinforcementJournal journal) {
+		this.logger = logger;
+		this.dao = dao;
+		this.flushIntervalMs = Math.max(1, flushIntervalMs);
+		this.maxBatchSize = Math.max(1, maxBatchSize);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor();
+		this.flushRequested = new AtomicBoolean(false);
+		this.flushLock = new Object();
+		this.journal = journal;
+		this.queue = new ReinforcementWriteBuffer();
+		this.inFlightChunks = new HashMap<>();
+	}
+
+	void start() {
+		scheduler.scheduleWithFixedDelay(() -> {
+			flush();
+		}, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the background flushing and persists everything still queued on the calling thread
+	 */
+	void shutdown() {
+		scheduler.shutdown();
+
+		try {
+			if (!scheduler.awaitTermination(60, TimeUnit.SECONDS)) {
+				scheduler.shutdownNow();
+			}
+		} catch (InterruptedException ex) {
+			logger.log(Level.SEVERE, "Interrupted while waiting for reinforcement flushing to stop: ", ex);
+			Thread.currentThread().interrupt();
+		}
+
+		flush();
+
+		int remaining;
+		synchronized (this) {
+			remaining = queue.size();
+			if (journal != null) {
+				// anything not persisted stays in the journal and is replayed on the next start
+				journal.close(remaining == 0);
+			}
+		}
+		if (remaining > 0) {
+			logger.severe("Failed to persist " + remaining + " queued reinforcement changes on shutdown");
+		}
+	}
+
+	void enqueue(ReinforcementTuple write) {
+		boolean full;
+		synchronized (this) {
+			if (journal != null) {
+				try {
+					journal.append(write);
+				} catch (IOException e) {
+					logger.log(Level.SEVERE, "Failed to append reinforcement change to journal: ", e);
+				}
+			}
+			queue.add(write);
+			full = queue.size() >= maxBatchSize;
+		}
+		if (full && !scheduler.isShutdown() && flushRequested.compareAndSet(false, true)) {
+			scheduler.execute(this::flush);
+		}
+	}
+
+	/**
+	 * Data loaded from the database is only up to date once all queued writes for it are persisted, so this
+	 * synchronously flushes the queue if it holds writes for the given chunk
+	 *
+	 * @param chunkKey Key of the chunk about to be read, see {@link CitadelDAO#toChunkKey(short, int, int)}
+	 */
+	void flushIfPending(long chunkKey) {
+		if (hasPending(chunkKey)) {
+			flush();
+		}
+	}
+
+	/**
+	 * @param chunkKey Key of the chunk, see {@link CitadelDAO#toChunkKey(short, int, int)}
+	 * @return True if writes for the chunk are queued or being persisted right now
+	 */
+	synchronized boolean hasPending(long chunkKey) {
+		return queue.containsChunk(chunkKey) || inFlightChunks.containsKey(chunkKey);
+	}
+
+	/**
+	 * Persists all queued writes in batches of at most the configured size. If the database can not be reached, the
+	 * failed batch is put back into the queue, merged with any writes made in the mean time, and retried on the next
+	 * flush
+	 */
+	void flush() {
+		synchronized (flushLock) {
+			flushRequested.set(false);
+			synchronized (this) {
+				if (queue.size() == 0) {
+					return;
+				}
+				if (journal != null) {
+					// everything queued so far ends up in sealed segments, which can be dropped once the queue is empty
+					try {
+						journal.rotate();
+					} catch (IOException e) {
+						logger.log(Level.SEVERE, "Failed to rotate reinforcement journal: ", e);
+					}
+				}
+			}
+			while (true) {
+				List<ReinforcementTuple> batch;
+				synchronized (this) {
+					if (queue.size() == 0) {
+						if (journal != null) {
+							journal.deleteSealed();
+						}
+						return;
+					}
+					batch = queue.drain(maxBatchSize);
+					for (ReinforcementTuple write : batch) {
+						inFlightChunks.merge(write.getChunkKey(), 1, Integer::sum);
+					}
+				}
+				long start = System.nanoTime();
+				boolean success = dao.persistWrites(batch);
+				long time = System.nanoTime() - start;
+				synchronized (this) {
+					inFlightChunks.clear();
+					if (!success) {
+						for (ReinforcementTuple write : batch) {
+							queue.requeue(write);
+						}
+						failedFlushCount++;
+						return;
+					}
+					flushCount++;
+					rowsFlushed += batch.size();
+					lastFlushRows = batch.size();
+					maxFlushRows = Math.max(maxFlushRows, batch.size());
+					lastFlushTimeNano = time;
+					flushSumNano += time;
+					flushMaxTimeNano = Math.max(flushMaxTimeNano, time);
+				}
+			}
+		}
+	}
+
+	synchronized WriteBehindStat getStat() {
+		var stat = new WriteBehindStat();
+		stat.queueDepth = queue.size();
+		stat.pendingChunks = queue.getChunkCount();
+		stat.coalescedWrites = queue.getCoalescedWrites();
+		stat.flushCount = flushCount;
+		stat.failedFlushCount = failedFlushCount;
+		stat.rowsFlushed = rowsFlushed;
+		stat.lastFlushRows = lastFlushRows;
+		stat.maxFlushRows = maxFlushRows;
+		stat.lastFlushTimeNano = lastFlushTimeNano;
+		stat.flushSumNano = flushSumNano;
+		stat.flushMaxTimeNano = flushMaxTimeNano;
+		return stat;
+	}
+}
@@ -0,0 +1,103 @@
+package vg.civcraft.mc.citadel.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds reinforcement writes which are not persisted yet, keeping only the final state per position. Many updates
+ * to the same reinforcement become one and an insert followed by a deletion cancels out entirely. Not thread safe,
+ * synchronization is up to the owner.
+ */
+class ReinforcementWriteBuffer {
+
+	private final LinkedHashMap<ReinforcementKey, ReinforcementTuple> writes;
+	private final Map<Long, Integer> chunks;
+	private long coalescedWrites;
+
+	ReinforcementWriteBuffer() {
+		this.writes = new LinkedHashMap<>();
+		this.chunks = new HashMap<>();
+	}
+
+	void add(ReinforcementTuple write) {
+		ReinforcementKey key = write.getKey();
+		ReinforcementTuple existing = writes.get(key);
+		if (existing == null) {
+			put(key, write);
+			return;
+		}
+		coalescedWrites++;
+		replace(key, ReinforcementTuple.merge(existing, write));
+	}
+
+	/**
+	 * Puts a write back which was taken out of the buffer, but could not be persisted. Writes made in the mean time
+	 * are newer than it, so it is merged in front of them
+	 *
+	 * @param write Write to put back
+	 */
+	void requeue(ReinforcementTuple write) {
+		ReinforcementKey key = write.getKey();
+		ReinforcementTuple existing = writes.get(key);
+		if (existing == null) {
+			put(key, write);
+			return;
+		}
+		replace(key, ReinforcementTuple.merge(write, existing));
+	}
+
+	private void put(ReinforcementKey key, ReinforcementTuple write) {
+		writes.put(key, write);
+		chunks.merge(write.getChunkKey(), 1, Integer::sum);
+	}
+
+	private void replace(ReinforcementKey key, ReinforcementTuple merged) {
+		if (merged != null) {
+			writes.put(key, merged);
+			return;
+		}
+		ReinforcementTuple removed = writes.remove(key);
+		chunks.computeIfPresent(removed.getChunkKey(), (k, v) -> v == 1 ? null : v - 1);
+	}
+
+	/**
+	 * Takes the oldest writes out of the buffer
+	 *
+	 * @param max Maximum amount of writes to take
+	 * @return Writes taken out, each for a different position
+	 */
+	List<ReinforcementTuple> drain(int max) {
+		List<ReinforcementTuple> result = new ArrayList<>(Math.min(max, writes.size()));
+		Iterator<ReinforcementTuple> iter = writes.values().iterator();
+		while (iter.hasNext() && result.size() < max) {
+			ReinforcementTuple write = iter.next();
+			iter.remove();
+			chunks.computeIfPresent(write.getChunkKey(), (k, v) -> v == 1 ? null : v - 1);
+			result.add(write);
+		}
+		return result;
+	}
+
+	boolean containsChunk(long chunkKey) {
+		return chunks.containsKey(chunkKey);
+	}
+
+	int size() {
+		return writes.size();
+	}
+
+	int getChunkCount() {
+		return chunks.size();
+	}
+
+	/**
+	 * @return How many writes were merged into an already buffered write for the same position
+	 */
+	long getCoalescedWrites() {
+		return coalescedWrites;
+	}
+}
@@ -0,0 +1,11 @@
+package vg.civcraft.mc.citadel.model;
+
+public class TransferCacheStat {
+	public int size;
+	public int maxSize;
+	public int trackedChunks;
+	public long hits;
+	public long misses;
+	public long staleEntries;
+	public long evictions;
+}
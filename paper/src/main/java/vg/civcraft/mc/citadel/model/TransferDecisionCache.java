@@ -0,0 +1,130 @@
+package vg.civcraft.mc.citadel.model;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import vg.civcraft.mc.citadel.ResponsibleBlockResolver;
+
+/**
+ * Remembers whether items may be moved between two reinforced or unreinforced containers, so hopper chains do not
+ * look up both reinforcements on every transfer. Every loaded chunk has a modification epoch, which is replaced with
+ * a new, never used value whenever a reinforcement in it is created, broken, changes group or insecure flag or a
+ * block in it is placed or broken. Decisions remember the epochs of both chunks involved and are only reused while
+ * both are unchanged. Chunks which are not loaded have no epoch and transfers involving them are never cached
+ */
+public class TransferDecisionCache {
+
+	private record Key(short worldID, long from, long to) {
+	}
+
+	private static final class Decision {
+		private final boolean allowed;
+		private final int fromEpoch;
+		private final int toEpoch;
+
+		private Decision(boolean allowed, int fromEpoch, int toEpoch) {
+			this.allowed = allowed;
+			this.fromEpoch = fromEpoch;
+			this.toEpoch = toEpoch;
+		}
+	}
+
+	private final int maxSize;
+	private final Long2IntOpenHashMap chunkEpochs;
+	private final LinkedHashMap<Key, Decision> decisions;
+	private int nextEpoch;
+	private long hits;
+	private long misses;
+	private long staleEntries;
+	private long evictions;
+
+	public TransferDecisionCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.chunkEpochs = new Long2IntOpenHashMap();
+		this.chunkEpochs.defaultReturnValue(0);
+		this.nextEpoch = 1;
+		this.decisions = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Decision> eldest) {
+				if (size() > TransferDecisionCache.this.maxSize) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public synchronized void chunkLoaded(short worldID, int chunkX, int chunkZ) {
+		chunkEpochs.put(toChunkKey(worldID, chunkX, chunkZ), nextEpoch++);
+	}
+
+	public synchronized void chunkUnloaded(short worldID, int chunkX, int chunkZ) {
+		chunkEpochs.remove(toChunkKey(worldID, chunkX, chunkZ));
+	}
+
+	/**
+	 * Invalidates all decisions involving the given block column, must be called whenever a reinforcement or block
+	 * there changes
+	 */
+	public synchronized void blockChanged(short worldID, int x, int z) {
+		long chunkKey = toChunkKey(worldID, x >> 4, z >> 4);
+		if (chunkEpochs.containsKey(chunkKey)) {
+			chunkEpochs.put(chunkKey, nextEpoch++);
+		}
+	}
+
+	/**
+	 * @param worldID Internal id of the world both containers are in
+	 * @param from    Packed position of the source container
+	 * @param to      Packed position of the destination container
+	 * @return Cached decision or null if there is none or it may be outdated
+	 */
+	public synchronized Boolean get(short worldID, long from, long to) {
+		Decision decision = decisions.get(new Key(worldID, from, to));
+		if (decision == null) {
+			misses++;
+			return null;
+		}
+		if (decision.fromEpoch != getEpoch(worldID, from) || decision.toEpoch != getEpoch(worldID, to)) {
+			staleEntries++;
+			misses++;
+			return null;
+		}
+		hits++;
+		return decision.allowed;
+	}
+
+	/**
+	 * Remembers a decision, unless one of the chunks involved is not tracked
+	 */
+	public synchronized void put(short worldID, long from, long to, boolean allowed) {
+		int fromEpoch = getEpoch(worldID, from);
+		int toEpoch = getEpoch(worldID, to);
+		if (fromEpoch == 0 || toEpoch == 0) {
+			return;
+		}
+		decisions.put(new Key(worldID, from, to), new Decision(allowed, fromEpoch, toEpoch));
+	}
+
+	public synchronized TransferCacheStat getStat() {
+		TransferCacheStat stat = new TransferCacheStat();
+		stat.size = decisions.size();
+		stat.maxSize = maxSize;
+		stat.trackedChunks = chunkEpochs.size();
+		stat.hits = hits;
+		stat.misses = misses;
+		stat.staleEntries = staleEntries;
+		stat.evictions = evictions;
+		return stat;
+	}
+
+	private int getEpoch(short worldID, long position) {
+		return chunkEpochs.get(toChunkKey(worldID, ResponsibleBlockResolver.unpackX(position) >> 4,
+				ResponsibleBlockResolver.unpackZ(position) >> 4));
+	}
+
+	private static long toChunkKey(short worldID, int chunkX, int chunkZ) {
+		return ((long) worldID << 48) | ((long) (chunkX & 0xFFFFFF) << 24) | (chunkZ & 0xFFFFFF);
+	}
+}
@@ -0,0 +1,15 @@
+package vg.civcraft.mc.citadel.model;
+
+public class WriteBehindStat {
+	public int queueDepth;
+	public int pendingChunks;
+	public long coalescedWrites;
+	public long flushCount;
+	public long failedFlushCount;
+	public long rowsFlushed;
+	public long lastFlushRows;
+	public long maxFlushRows;
+	public long lastFlushTimeNano;
+	public long flushSumNano;
+	public long flushMaxTimeNano;
+}
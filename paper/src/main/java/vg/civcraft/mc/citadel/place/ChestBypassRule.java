@@ -0,0 +1,26 @@
+package vg.civcraft.mc.citadel.place;
+
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import vg.civcraft.mc.civmodcore.world.WorldUtils;
+
+/**
+ * Prevents players from upgrading a chest into a double chest to bypass the single chests reinforcement
+ */
+public class ChestBypassRule implements PlaceRule {
+
+	@Override
+	public boolean appliesTo(Material material) {
+		return material == Material.CHEST || material == Material.TRAPPED_CHEST;
+	}
+
+	@Override
+	public void apply(PlaceContext context) {
+		for (Block rel : WorldUtils.getPlanarBlockSides(context.getBlock(), true)) {
+			if (rel.getType() == context.getType() && context.isPreventingBlockAccess(rel)) {
+				context.denyAndLog("You can not place this because it'd allow bypassing a nearby reinforcement", rel);
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package vg.civcraft.mc.citadel.place;
+
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.type.Comparator;
+
+/**
+ * Stops comparators from being placed against secure containers the player can not access
+ */
+public class ComparatorRule implements PlaceRule {
+
+	private static final String MESSAGE = "You can not place this because it'd allow bypassing a nearby reinforcement";
+
+	@Override
+	public boolean appliesTo(Material material) {
+		return material == Material.COMPARATOR;
+	}
+
+	@Override
+	public void apply(PlaceContext context) {
+		Comparator comparator = (Comparator) context.getBlock().getBlockData();
+		Block block = context.getBlock().getRelative(comparator.getFacing().getOppositeFace());
+		// Check if the comparator is placed against something with an inventory
+		if (context.isPreventingBlockAccess(block)) {
+			context.denyAndLog(MESSAGE, block);
+			return;
+		}
+		// Comparators can also read through a single opaque block
+		if (block.getType().isOccluding()
+				&& context.isPreventingBlockAccess(block.getRelative(comparator.getFacing().getOppositeFace()))) {
+			context.denyAndLog(MESSAGE, block);
+		}
+	}
+}
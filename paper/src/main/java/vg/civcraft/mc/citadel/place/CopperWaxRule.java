@@ -0,0 +1,31 @@
+package vg.civcraft.mc.citadel.place;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import vg.civcraft.mc.citadel.CitadelPermissionHandler;
+import vg.civcraft.mc.citadel.model.Reinforcement;
+import vg.civcraft.mc.civmodcore.inventory.items.MoreTags;
+
+/**
+ * Prevents waxing or stripping reinforced copper blocks without the permission to modify blocks. For some reason
+ * this calls a BlockPlaceEvent instead of a PlayerInteractEvent, which might change in the future
+ */
+public class CopperWaxRule implements PlaceRule {
+
+	@Override
+	public boolean appliesTo(Material material) {
+		return MoreTags.COPPER_BLOCKS.isTagged(material);
+	}
+
+	@Override
+	public void apply(PlaceContext context) {
+		Reinforcement reinforcement = context.getReinforcement();
+		if (reinforcement == null) {
+			return;
+		}
+		if (!context.hasPermission(reinforcement, CitadelPermissionHandler.getModifyBlocks())) {
+			context.getPlayer().sendMessage(ChatColor.RED + "You do not have permission to modify this block");
+			context.getEvent().setCancelled(true);
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package vg.civcraft.mc.citadel.place;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockPlaceEvent;
+import vg.civcraft.mc.citadel.Citadel;
+import vg.civcraft.mc.citadel.CitadelUtility;
+import vg.civcraft.mc.citadel.ReinforcementLogic;
+import vg.civcraft.mc.citadel.ResponsibleBlockResolver;
+import vg.civcraft.mc.citadel.model.Reinforcement;
+import vg.civcraft.mc.namelayer.permission.PermissionType;
+
+/**
+ * Everything rules may need to know about a single block placement. Reinforcements of the placed block and its
+ * neighbours and permission checks are looked up at most once per event, no matter how many rules ask for them
+ */
+public class PlaceContext {
+
+	private static final int MAX_REMEMBERED = 6;
+
+	private final BlockPlaceEvent event;
+	private final Block block;
+	private final Material type;
+	private boolean reinforcementResolved;
+	private Reinforcement reinforcement;
+	private boolean protectingResolved;
+	private Reinforcement protecting;
+	private final Block[] accessChecked;
+	private final boolean[] accessResults;
+	private int accessCount;
+	private final Reinforcement[] permissionReinforcements;
+	private final PermissionType[] permissionTypes;
+	private final boolean[] permissionResults;
+	private int permissionCount;
+
+	public PlaceContext(BlockPlaceEvent event) {
+		this.event = event;
+		this.block = event.getBlockPlaced();
+		this.type = block.getType();
+		this.accessChecked = new Block[MAX_REMEMBERED];
+		this.accessResults = new boolean[MAX_REMEMBERED];
+		this.permissionReinforcements = new Reinforcement[MAX_REMEMBERED];
+		this.permissionTypes = new PermissionType[MAX_REMEMBERED];
+		this.permissionResults = new boolean[MAX_REMEMBERED];
+	}
+
+	public BlockPlaceEvent getEvent() {
+		return event;
+	}
+
+	public Player getPlayer() {
+		return event.getPlayer();
+	}
+
+	public Block getBlock() {
+		return block;
+	}
+
+	public Material getType() {
+		return type;
+	}
+
+	/**
+	 * @return Reinforcement at the position of the placed block itself, may be null
+	 */
+	public Reinforcement getReinforcement() {
+		if (!reinforcementResolved) {
+			reinforcement = Citadel.getInstance().getReinforcementManager().getReinforcement(block);
+			reinforcementResolved = true;
+		}
+		return reinforcement;
+	}
+
+	/**
+	 * @return Reinforcement protecting the placed block, see
+	 * {@link ReinforcementLogic#getReinforcementProtecting(Block)}, may be null
+	 */
+	public Reinforcement getProtectingReinforcement() {
+		if (!protectingResolved) {
+			if (ResponsibleBlockResolver.getStrategy(type) == ResponsibleBlockResolver.Strategy.SELF) {
+				protecting = getReinforcement();
+			} else {
+				protecting = ReinforcementLogic.getReinforcementProtecting(block);
+			}
+			protectingResolved = true;
+		}
+		return protecting;
+	}
+
+	/**
+	 * Must be called by rules which remove reinforcements at the placed block, so later rules do not see them
+	 */
+	public void reinforcementsChanged() {
+		reinforcementResolved = false;
+		protectingResolved = false;
+		reinforcement = null;
+		protecting = null;
+		permissionCount = 0;
+	}
+
+	/**
+	 * Checks whether the player has the given permission on the given reinforcement, remembering the outcome for the
+	 * rest of the event
+	 */
+	public boolean hasPermission(Reinforcement rein, PermissionType permission) {
+		for (int i = 0; i < permissionCount; i++) {
+			if (permissionReinforcements[i] == rein && permissionTypes[i] == permission) {
+				return permissionResults[i];
+			}
+		}
+		boolean result = rein.hasPermission(getPlayer(), permission);
+		if (permissionCount < MAX_REMEMBERED) {
+			permissionReinforcements[permissionCount] = rein;
+			permissionTypes[permissionCount] = permission;
+			permissionResults[permissionCount] = result;
+			permissionCount++;
+		}
+		return result;
+	}
+
+	/**
+	 * See {@link ReinforcementLogic#isPreventingBlockAccess(org.bukkit.entity.Player, Block)}, remembering the outcome
+	 * for the rest of the event
+	 */
+	public boolean isPreventingBlockAccess(Block other) {
+		for (int i = 0; i < accessCount; i++) {
+			if (accessChecked[i].equals(other)) {
+				return accessResults[i];
+			}
+		}
+		boolean result = ReinforcementLogic.isPreventingBlockAccess(getPlayer(), other);
+		if (accessCount < MAX_REMEMBERED) {
+			accessChecked[accessCount] = other;
+			accessResults[accessCount] = result;
+			accessCount++;
+		}
+		return result;
+	}
+
+	/**
+	 * Cancels the placement and tells the player why, logging the message if configured
+	 */
+	public void denyAndLog(String message, Block cause) {
+		event.setCancelled(true);
+		CitadelUtility.sendAndLog(getPlayer(), ChatColor.RED, message, cause.getLocation());
+	}
+}
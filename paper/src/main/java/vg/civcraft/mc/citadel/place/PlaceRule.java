@@ -0,0 +1,22 @@
+package vg.civcraft.mc.citadel.place;
+
+import org.bukkit.Material;
+
+/**
+ * Single step of the block place pipeline run by {@link vg.civcraft.mc.citadel.listener.PlaceListener}
+ */
+public interface PlaceRule {
+
+	/**
+	 * @param material Material of the placed block
+	 * @return Whether the rule needs to look at placements of the given material
+	 */
+	boolean appliesTo(Material material);
+
+	/**
+	 * Checks the placement and cancels it if it is not allowed
+	 *
+	 * @param context Placement to check
+	 */
+	void apply(PlaceContext context);
+}
@@ -0,0 +1,32 @@
+package vg.civcraft.mc.citadel.place;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Material;
+import vg.civcraft.mc.citadel.CitadelPermissionHandler;
+import vg.civcraft.mc.citadel.model.Reinforcement;
+
+/**
+ * Prevents placing blocks protected by a reinforcement, like crops on reinforced soil, without the crops permission
+ */
+public class PlantRule implements PlaceRule {
+
+	@Override
+	public boolean appliesTo(Material material) {
+		return true;
+	}
+
+	@Override
+	public void apply(PlaceContext context) {
+		Reinforcement reinforcement = context.getProtectingReinforcement();
+		if (reinforcement == null) {
+			return;
+		}
+		if (context.hasPermission(reinforcement, CitadelPermissionHandler.getCrops())) {
+			return;
+		}
+		context.getEvent().setCancelled(true);
+		context.getPlayer().sendMessage(Component.text("You cannot place this without the permission "
+				+ CitadelPermissionHandler.getCrops().getName() + " on it's group!", NamedTextColor.RED));
+	}
+}
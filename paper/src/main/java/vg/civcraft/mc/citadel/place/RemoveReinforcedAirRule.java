@@ -0,0 +1,28 @@
+package vg.civcraft.mc.citadel.place;
+
+import org.bukkit.Material;
+import vg.civcraft.mc.citadel.model.Reinforcement;
+import vg.civcraft.mc.civmodcore.inventory.items.MaterialUtils;
+
+/**
+ * Removes leftover reinforcements of air when a block is placed there
+ */
+public class RemoveReinforcedAirRule implements PlaceRule {
+
+	@Override
+	public boolean appliesTo(Material material) {
+		return true;
+	}
+
+	@Override
+	public void apply(PlaceContext context) {
+		if (!MaterialUtils.isAir(context.getEvent().getBlockReplacedState().getType())) {
+			return;
+		}
+		Reinforcement rein = context.getReinforcement();
+		if (rein != null) {
+			rein.setHealth(-1);
+			context.reinforcementsChanged();
+		}
+	}
+}
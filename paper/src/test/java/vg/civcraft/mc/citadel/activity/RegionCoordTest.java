@@ -0,0 +1,41 @@
+package vg.civcraft.mc.citadel.activity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import org.junit.jupiter.api.Test;
+
+class RegionCoordTest {
+
+	@Test
+	void keysOfNeighboursAreDistinct() {
+		LongSet keys = new LongOpenHashSet();
+		for (short world = 0; world < 3; world++) {
+			for (int x = -20; x <= 20; x++) {
+				for (int z = -20; z <= 20; z++) {
+					assertTrue(keys.add(RegionCoord.toKey(world, x, z)), world + " " + x + " " + z);
+				}
+			}
+		}
+	}
+
+	@Test
+	void keysAtTheWorldBorderAreDistinct() {
+		// 30 million blocks at the smallest resolution of 16
+		int max = 30_000_000 / 16;
+		LongSet keys = new LongOpenHashSet();
+		for (int x : new int[] {-max, -1, 0, 1, max}) {
+			for (int z : new int[] {-max, -1, 0, 1, max}) {
+				assertTrue(keys.add(RegionCoord.toKey((short) 0, x, z)), x + " " + z);
+			}
+		}
+	}
+
+	@Test
+	void worldIdIsKeptInTheHighestBits() {
+		assertEquals((short) 7, (short) (RegionCoord.toKey((short) 7, -5, 9) >>> 48));
+		assertEquals(RegionCoord.toKey((short) 7, -5, 9), new RegionCoord((short) 7, -5, 9).key());
+	}
+}
@@ -0,0 +1,86 @@
+package vg.civcraft.mc.citadel.activity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.junit.jupiter.api.Test;
+
+class RegionDataTest {
+
+	@Test
+	void unknownGroupsHaveNoTimes() {
+		RegionData region = new RegionData(32);
+		assertEquals(0, region.getActivity(1));
+		assertEquals(0, region.getEntry(1));
+	}
+
+	@Test
+	void editsAreOnlyVisibleOncePublished() {
+		RegionData region = new RegionData(32);
+		RegionData.GroupTimes edited = region.editTimes();
+		edited.setActivity(1, 1000);
+		edited.setEntry(1, 2000);
+		assertEquals(0, region.getActivity(1));
+		region.publishTimes(edited);
+		assertEquals(1000, region.getActivity(1));
+		assertEquals(2000, region.getEntry(1));
+
+		RegionData.GroupTimes second = region.editTimes();
+		second.setActivity(1, 3000);
+		// the published times are never modified
+		assertEquals(1000, region.getActivity(1));
+		assertEquals(3000, second.getActivity(1));
+	}
+
+	@Test
+	void growsBeyondInitialCapacity() {
+		RegionData region = new RegionData(32);
+		RegionData.GroupTimes edited = region.editTimes();
+		for (int group = 0; group < 100; group++) {
+			edited.setActivity(group, 1000 + group);
+		}
+		region.publishTimes(edited);
+		assertEquals(100, region.getGroupCount());
+		IntSet groups = new IntOpenHashSet();
+		region.collectGroups(groups);
+		assertEquals(100, groups.size());
+		for (int group = 0; group < 100; group++) {
+			assertEquals(1000 + group, region.getActivity(group));
+		}
+	}
+
+	@Test
+	void keepsTimesAfter2038() {
+		// stored as unsigned ints
+		long time = (1L << 31) + 12345L;
+		RegionData region = new RegionData(32);
+		RegionData.GroupTimes edited = region.editTimes();
+		edited.setActivity(5, time);
+		region.publishTimes(edited);
+		assertEquals(time, region.getActivity(5));
+	}
+
+	@Test
+	void tracksLoadedChunks() {
+		RegionData region = new RegionData(2);
+		assertTrue(region.hasNoChunks());
+		region.addChunk(-2, 4);
+		region.addChunk(-2, 4);
+		region.addChunk(-1, 5);
+		assertFalse(region.removeChunk(-2, 4));
+		assertTrue(region.removeChunk(-1, 5));
+		assertTrue(region.hasNoChunks());
+	}
+
+	@Test
+	void chunklessRegionsExpireOnTheSecondSweep() {
+		RegionData region = new RegionData(2);
+		assertFalse(region.sweepChunkless());
+		assertTrue(region.sweepChunkless());
+		region.addChunk(0, 0);
+		assertFalse(region.sweepChunkless());
+	}
+}
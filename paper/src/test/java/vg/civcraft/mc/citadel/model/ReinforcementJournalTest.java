@@ -0,0 +1,155 @@
+package vg.civcraft.mc.citadel.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReinforcementJournalTest {
+
+	private static final Logger LOGGER = Logger.getLogger(ReinforcementJournalTest.class.getName());
+
+	@TempDir
+	File folder;
+
+	/**
+	 * Encodes a record the same way {@link ReinforcementJournal#append(ReinforcementTuple)} does
+	 */
+	private static byte[] record(byte op, int chunkX, int y, int groupID) {
+		ByteBuffer buffer = ByteBuffer.allocate(42);
+		buffer.put(op);
+		buffer.putShort((short) 3);
+		buffer.putInt(chunkX);
+		buffer.putInt(-7);
+		buffer.put((byte) 5);
+		buffer.putShort((short) y);
+		buffer.put((byte) 11);
+		buffer.putShort((short) 2);
+		buffer.putFloat(42.5f);
+		buffer.putInt(groupID);
+		buffer.put((byte) 1);
+		buffer.putLong(123456789L);
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), 0, 34);
+		buffer.putLong(crc.getValue());
+		return buffer.array();
+	}
+
+	private static byte[] concat(byte[]... parts) {
+		int length = 0;
+		for (byte[] part : parts) {
+			length += part.length;
+		}
+		byte[] result = new byte[length];
+		int offset = 0;
+		for (byte[] part : parts) {
+			System.arraycopy(part, 0, result, offset, part.length);
+			offset += part.length;
+		}
+		return result;
+	}
+
+	private void writeSegment(int id, byte[] content) throws IOException {
+		Files.write(new File(folder, "journal-" + id + ".bin").toPath(), content);
+	}
+
+	@Test
+	void readsAllFieldsOfARecord() throws IOException {
+		writeSegment(0, record(ReinforcementJournal.UPDATE, 100, -60, 77));
+		List<ReinforcementJournal.Entry> entries = ReinforcementJournal.readAll(LOGGER, folder);
+		assertEquals(List.of(new ReinforcementJournal.Entry(ReinforcementJournal.UPDATE, (short) 3, 100, -7, (byte) 5,
+				(short) -60, (byte) 11, (short) 2, 42.5f, 77, true, 123456789L)), entries);
+		assertEquals(new ReinforcementKey((short) 3, 1605, -60, -101), entries.get(0).getKey());
+	}
+
+	@Test
+	void replaysSegmentsInNumericOrder() throws IOException {
+		writeSegment(10, record(ReinforcementJournal.DELETE, 3, 64, 1));
+		writeSegment(2, concat(record(ReinforcementJournal.INSERT, 1, 64, 1),
+				record(ReinforcementJournal.UPDATE, 2, 64, 1)));
+		List<ReinforcementJournal.Entry> entries = ReinforcementJournal.readAll(LOGGER, folder);
+		assertEquals(3, entries.size());
+		for (int i = 0; i < entries.size(); i++) {
+			assertEquals(i + 1, entries.get(i).chunkX());
+		}
+	}
+
+	@Test
+	void skipsTruncatedLastRecord() throws IOException {
+		byte[] second = record(ReinforcementJournal.UPDATE, 2, 64, 1);
+		writeSegment(0, concat(record(ReinforcementJournal.INSERT, 1, 64, 1), Arrays.copyOf(second, 20)));
+		List<ReinforcementJournal.Entry> entries = ReinforcementJournal.readAll(LOGGER, folder);
+		assertEquals(1, entries.size());
+		assertEquals(1, entries.get(0).chunkX());
+	}
+
+	@Test
+	void stopsAtCorruptedRecord() throws IOException {
+		byte[] corrupted = record(ReinforcementJournal.UPDATE, 2, 64, 1);
+		corrupted[10] ^= 1;
+		writeSegment(0, concat(record(ReinforcementJournal.INSERT, 1, 64, 1), corrupted,
+				record(ReinforcementJournal.DELETE, 3, 64, 1)));
+		// a later segment is still read
+		writeSegment(1, record(ReinforcementJournal.DELETE, 4, 64, 1));
+		List<ReinforcementJournal.Entry> entries = ReinforcementJournal.readAll(LOGGER, folder);
+		assertEquals(2, entries.size());
+		assertEquals(1, entries.get(0).chunkX());
+		assertEquals(4, entries.get(1).chunkX());
+	}
+
+	@Test
+	void ignoresUnrelatedFiles() throws IOException {
+		Files.write(new File(folder, "journal-abc.bin").toPath(), new byte[] {1, 2, 3});
+		Files.write(new File(folder, "other.bin").toPath(), record(ReinforcementJournal.INSERT, 1, 64, 1));
+		assertTrue(ReinforcementJournal.readAll(LOGGER, folder).isEmpty());
+	}
+
+	@Test
+	void continuesNumberingAfterExistingSegments() throws IOException {
+		writeSegment(4, record(ReinforcementJournal.INSERT, 1, 64, 1));
+		ReinforcementJournal journal = new ReinforcementJournal(LOGGER, folder);
+		journal.open();
+		journal.rotate();
+		journal.close(false);
+		String[] names = folder.list();
+		Arrays.sort(names);
+		assertArrayEquals(new String[] {"journal-4.bin", "journal-5.bin", "journal-6.bin"}, names);
+	}
+
+	@Test
+	void deletesOnlySealedSegments() throws IOException {
+		ReinforcementJournal journal = new ReinforcementJournal(LOGGER, folder);
+		journal.open();
+		journal.rotate();
+		journal.deleteSealed();
+		journal.close(false);
+		assertArrayEquals(new String[] {"journal-1.bin"}, folder.list());
+	}
+
+	@Test
+	void closingAfterEverythingIsPersistedDeletesAllSegments() throws IOException {
+		ReinforcementJournal journal = new ReinforcementJournal(LOGGER, folder);
+		journal.open();
+		journal.rotate();
+		journal.close(true);
+		assertEquals(0, folder.list().length);
+	}
+
+	@Test
+	void deleteAllRemovesEverySegment() throws IOException {
+		writeSegment(0, record(ReinforcementJournal.INSERT, 1, 64, 1));
+		writeSegment(1, record(ReinforcementJournal.INSERT, 2, 64, 1));
+		ReinforcementJournal.deleteAll(LOGGER, folder);
+		assertTrue(ReinforcementJournal.readAll(LOGGER, folder).isEmpty());
+	}
+}
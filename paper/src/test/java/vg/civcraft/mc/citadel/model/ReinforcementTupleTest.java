@@ -0,0 +1,52 @@
+package vg.civcraft.mc.citadel.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static vg.civcraft.mc.citadel.model.ReinforcementTuple.WriteType.DELETE;
+import static vg.civcraft.mc.citadel.model.ReinforcementTuple.WriteType.INSERT;
+import static vg.civcraft.mc.citadel.model.ReinforcementTuple.WriteType.REPLACE;
+import static vg.civcraft.mc.citadel.model.ReinforcementTuple.WriteType.UPDATE;
+
+import org.junit.jupiter.api.Test;
+import vg.civcraft.mc.citadel.model.ReinforcementTuple.WriteType;
+
+class ReinforcementTupleTest {
+
+	private static WriteType merge(WriteType older, WriteType newer) {
+		return ReinforcementTuple.mergeTypes(older, newer);
+	}
+
+	@Test
+	void insertFollowedBy() {
+		assertEquals(INSERT, merge(INSERT, INSERT));
+		assertEquals(INSERT, merge(INSERT, UPDATE));
+		// the row never made it into the database
+		assertNull(merge(INSERT, DELETE));
+		assertEquals(REPLACE, merge(INSERT, REPLACE));
+	}
+
+	@Test
+	void updateFollowedBy() {
+		assertEquals(REPLACE, merge(UPDATE, INSERT));
+		assertEquals(UPDATE, merge(UPDATE, UPDATE));
+		assertEquals(DELETE, merge(UPDATE, DELETE));
+		assertEquals(REPLACE, merge(UPDATE, REPLACE));
+	}
+
+	@Test
+	void deleteFollowedBy() {
+		assertEquals(REPLACE, merge(DELETE, INSERT));
+		// must not bring the deleted reinforcement back
+		assertEquals(DELETE, merge(DELETE, UPDATE));
+		assertEquals(DELETE, merge(DELETE, DELETE));
+		assertEquals(REPLACE, merge(DELETE, REPLACE));
+	}
+
+	@Test
+	void replaceFollowedBy() {
+		assertEquals(REPLACE, merge(REPLACE, INSERT));
+		assertEquals(REPLACE, merge(REPLACE, UPDATE));
+		assertEquals(DELETE, merge(REPLACE, DELETE));
+		assertEquals(REPLACE, merge(REPLACE, REPLACE));
+	}
+}